@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+# Mede o tempo até a primeira requisição bem-sucedida (GET /) no modo padrão e no modo rápido
+# (AOT + AppCDS). Pré-requisitos: mvn -Pfast-startup package e o MySQL do docker-compose no ar.
+#
+# Uso: scripts/startup-benchmark.sh [execuções por modo]
+# Resultado: target/startup-benchmark.csv (modo,execução,ms) e a mediana de cada modo.
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-8080}"
+PROFILES="${PROFILES:-dev}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR_NAME="AluraFake-0.0.1-SNAPSHOT.jar"
+FAST_DIR="$ROOT/target/fast-startup"
+OUT="$ROOT/target/startup-benchmark.csv"
+
+if [[ ! -f "$FAST_DIR/application.jsa" ]]; then
+    echo "Arquivo AppCDS não encontrado; rode antes: mvn -Pfast-startup package" >&2
+    exit 1
+fi
+
+measure() {
+    local mode="$1" run="$2" dir="$3"
+    shift 3
+
+    local start end pid
+    start=$(date +%s%N)
+    (cd "$dir" && exec java "$@" -jar "$JAR_NAME" --server.port="$PORT") >/dev/null 2>&1 &
+    pid=$!
+
+    until curl -sf -o /dev/null "http://localhost:$PORT/"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "A aplicação ($mode) terminou antes de responder" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    end=$(date +%s%N)
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$mode,$run,$(( (end - start) / 1000000 ))" >> "$OUT"
+}
+
+median() {
+    grep "^$1," "$OUT" | cut -d, -f3 | sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+echo "mode,run,ms" > "$OUT"
+for run in $(seq 1 "$RUNS"); do
+    measure default "$run" "$ROOT/target" -Dspring.profiles.active="$PROFILES"
+    measure fast "$run" "$FAST_DIR" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+        -Dspring.profiles.active="$PROFILES,fast"
+done
+
+echo "Mediana até a primeira requisição: padrão $(median default) ms, rápido $(median fast) ms"
+echo "Detalhes em $OUT"
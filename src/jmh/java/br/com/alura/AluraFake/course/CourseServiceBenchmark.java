@@ -0,0 +1,113 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.task.Type;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserInstructorCourseReportDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ValidationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.alura.AluraFake.jmh.BenchmarkSupport.inject;
+import static br.com.alura.AluraFake.jmh.BenchmarkSupport.stub;
+
+/**
+ * Regras de publicação (continuidade da ordem e cobertura de tipos) e a montagem do relatório do
+ * instrutor, com o repositório trocado por um stub que devolve dados prontos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CourseServiceBenchmark {
+
+    private static final long READY_COURSE = 1;
+    private static final long INCOMPLETE_COURSE = 2;
+    private static final long INSTRUCTOR_ID = 10;
+
+    @Param({"10", "100", "1000"})
+    private int instructorCourses;
+
+    private CourseService courseService;
+    private InstructorReportCache reportCache;
+    private Course readyCourse;
+
+    @Setup
+    public void setUp() {
+        User instructor = new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR);
+
+        readyCourse = new Course("Java", "Curso de Java", instructor);
+        readyCourse.registerTask(Type.OPEN_TEXT);
+        readyCourse.registerTask(Type.SINGLE_CHOICE);
+        readyCourse.registerTask(Type.MULTIPLE_CHOICE);
+
+        Course incompleteCourse = new Course("Spring", "Curso de Spring", instructor);
+        incompleteCourse.registerTask(Type.OPEN_TEXT);
+        incompleteCourse.registerTask(Type.OPEN_TEXT);
+
+        List<InstructorReportRow> rows = new ArrayList<>(instructorCourses);
+        for (int i = 0; i < instructorCourses; i++) {
+            Status status = i % 3 == 0 ? Status.PUBLISHED : Status.BUILDING;
+            rows.add(new InstructorReportRow("Paulo", Role.INSTRUCTOR, (long) i, "Curso " + i, status,
+                    status == Status.PUBLISHED ? LocalDateTime.now() : null, 12));
+        }
+
+        CourseRepository courseRepository = stub(CourseRepository.class, Map.of(
+                "findByIdForUpdate", args -> Optional.of((Long) args[0] == READY_COURSE ? readyCourse : incompleteCourse),
+                "save", args -> args[0],
+                "findInstructorReportRows", args -> rows));
+
+        reportCache = new InstructorReportCache(100);
+        courseService = new CourseService();
+        inject(courseService, "courseRepository", courseRepository);
+        inject(courseService, "reportCache", reportCache);
+        inject(courseService, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public Course publish_ready() {
+        readyCourse.setStatus(Status.BUILDING);
+        return courseService.publishCourse(READY_COURSE);
+    }
+
+    @Benchmark
+    public void publish_missingTaskType(Blackhole blackhole) {
+        try {
+            courseService.publishCourse(INCOMPLETE_COURSE);
+        } catch (ValidationException ex) {
+            blackhole.consume(ex);
+        }
+    }
+
+    // Sem o cache: mede a conversão das linhas em relatório
+    @Benchmark
+    public UserInstructorCourseReportDTO instructorReport_mapping() {
+        reportCache.evict(INSTRUCTOR_ID);
+        return courseService.generateInstructorReport(INSTRUCTOR_ID);
+    }
+
+    @Benchmark
+    public UserInstructorCourseReportDTO instructorReport_cached() {
+        return courseService.generateInstructorReport(INSTRUCTOR_ID);
+    }
+}
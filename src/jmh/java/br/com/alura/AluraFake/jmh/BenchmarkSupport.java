@@ -0,0 +1,32 @@
+package br.com.alura.AluraFake.jmh;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Monta serviços fora do Spring para os benchmarks: os repositórios viram stubs que respondem só aos
+ * métodos informados, para que a medição fique no código da aplicação e não no framework.
+ */
+public final class BenchmarkSupport {
+
+    private BenchmarkSupport() {}
+
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException("Método sem stub no benchmark: " + method.getName());
+            }
+            return answer.apply(args);
+        });
+    }
+
+    public static <T> T inject(T target, String field, Object value) {
+        ReflectionTestUtils.setField(target, field, value);
+        return target;
+    }
+}
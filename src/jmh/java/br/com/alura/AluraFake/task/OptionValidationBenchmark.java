@@ -0,0 +1,59 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.option.Option;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validação de alternativas do TaskService pela quantidade de alternativas, com entrada válida.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class OptionValidationBenchmark {
+
+    @Param({"SINGLE_CHOICE", "MULTIPLE_CHOICE"})
+    private Type type;
+
+    @Param({"3", "4", "5"})
+    private int optionCount;
+
+    private final TaskService taskService = new TaskService();
+    private NewTaskDTO newTask;
+
+    @Setup
+    public void setUp() {
+        List<Option> options = new ArrayList<>(optionCount);
+        for (int i = 0; i < optionCount; i++) {
+            // Uma correta na escolha única; todas menos a última na múltipla escolha
+            boolean correct = type == Type.SINGLE_CHOICE ? i == 0 : i < optionCount - 1;
+            options.add(new Option("Alternativa número " + i, correct));
+        }
+        newTask = new NewTaskDTO();
+        newTask.setStatement("Qual das alternativas está correta?");
+        newTask.setOrder(1);
+        newTask.setOptions(options);
+    }
+
+    @Benchmark
+    public NewTaskDTO validateTaskOptions() {
+        taskService.validateTaskOptions(type, newTask);
+        return newTask;
+    }
+}
@@ -0,0 +1,175 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.AluraFakeApplication;
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserção de uma atividade pelo {@link TaskService} real, por tamanho de curso: leitura da janela de
+ * ranks, cálculo do novo rank e, no cenário {@code rebalance}, a redistribuição dos ranks do curso. Sobe a
+ * aplicação sobre um MariaDB embutido (mariaDB4j), criado num diretório temporário e descartado ao fim,
+ * para que as consultas nativas e as migrações rodem como em produção sem depender de um servidor externo.
+ *
+ * <p>Antes de cada chamada o curso volta ao tamanho original (a atividade inserida é apagada e os
+ * contadores restaurados); no cenário {@code rebalance}, duas atividades vizinhas ficam com ranks
+ * consecutivos para forçar a redistribuição.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskOrderingBenchmark {
+
+    private static final int SEED_BATCH_SIZE = 500;
+    private static final String DATABASE = "alurafake";
+
+    @Param({"100", "1000", "10000"})
+    private int courseSize;
+
+    @Param({"first", "middle", "append", "rebalance"})
+    private String scenario;
+
+    private DB database;
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskRepository taskRepository;
+    private JdbcTemplate jdbc;
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long courseId;
+    private long lastSeededTaskId;
+    private int order;
+    private long statementCounter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ManagedProcessException {
+        database = startDatabase();
+        String url = "jdbc:mysql://localhost:" + database.getConfiguration().getPort() + "/" + DATABASE
+                + "?useSSL=false&serverTimezone=UTC&createDatabaseIfNotExist=true&rewriteBatchedStatements=true";
+        try {
+            context = new SpringApplicationBuilder(AluraFakeApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--spring.datasource.url=" + url, "--spring.datasource.username=root",
+                            "--spring.datasource.password=", "--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        } catch (RuntimeException ex) {
+            // Sem o TearDown, o mariadbd ficaria órfão
+            database.stop();
+            throw ex;
+        }
+        taskService = context.getBean(TaskService.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+
+        order = switch (scenario) {
+            case "first" -> 1;
+            case "append" -> courseSize + 1;
+            default -> courseSize / 2;
+        };
+        seedCourse();
+    }
+
+    // Porta livre escolhida na hora; o mariadbd recusa rodar como root sem --user explícito. O schema é
+    // criado pela própria URL, sem o cliente mariadb do mariaDB4j, que depende de bibliotecas do sistema
+    private static DB startDatabase() throws ManagedProcessException {
+        DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+        config.setPort(0);
+        if ("root".equals(System.getProperty("user.name"))) {
+            config.addArg("--user=root");
+        }
+        DB database = DB.newEmbeddedDB(config.build());
+        database.start();
+        return database;
+    }
+
+    private void seedCourse() {
+        User instructor = context.getBean(UserRepository.class)
+                .save(new User("Benchmark", "benchmark@alura.com.br", Role.INSTRUCTOR));
+        Course course = context.getBean(CourseRepository.class)
+                .save(new Course("Ordenação " + courseSize, "Curso do TaskOrderingBenchmark", instructor));
+        courseId = course.getId();
+
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        for (int from = 1; from <= courseSize; from += SEED_BATCH_SIZE) {
+            int first = from;
+            int last = Math.min(courseSize, from + SEED_BATCH_SIZE - 1);
+            transaction.executeWithoutResult(status -> {
+                Course managed = context.getBean(CourseRepository.class).findById(courseId).orElseThrow();
+                List<Task> tasks = new ArrayList<>(last - first + 1);
+                for (int position = first; position <= last; position++) {
+                    tasks.add(new Task("Atividade " + position, Type.OPEN_TEXT,
+                            position * TaskRank.GAP, managed, List.of()));
+                    managed.registerTask(Type.OPEN_TEXT);
+                }
+                taskRepository.saveAll(tasks);
+            });
+        }
+        lastSeededTaskId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM Task WHERE course_id = ?",
+                Long.class, courseId);
+    }
+
+    /**
+     * Desfaz a chamada anterior por fora do serviço, para que toda medição parta do mesmo curso. Os ids
+     * das atividades só crescem dentro da JVM, então as inseridas pelo benchmark são as acima do seed.
+     */
+    @Setup(Level.Invocation)
+    public void resetCourse() {
+        jdbc.update("DELETE FROM Task WHERE course_id = ? AND id > ?", courseId, lastSeededTaskId);
+        jdbc.update("UPDATE Course SET taskCount = ?, openTextTaskCount = ? WHERE id = ?",
+                courseSize, courseSize, courseId);
+        entityManagerFactory.getCache().evict(Course.class, courseId);
+
+        if ("rebalance".equals(scenario)) {
+            List<Long> window = taskRepository.findRankWindow(courseId, order - 2);
+            jdbc.update("UPDATE Task SET task_rank = ? WHERE course_id = ? AND task_rank = ?",
+                    window.get(0) + 1, courseId, window.get(1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws ManagedProcessException {
+        context.close();
+        database.stop();
+    }
+
+    @Benchmark
+    public Task createOpenTextTask() {
+        NewTaskDTO newTask = new NewTaskDTO();
+        newTask.setCourseId(courseId);
+        newTask.setOrder(order);
+        newTask.setStatement("Atividade do benchmark " + scenario + " " + statementCounter++ + " (" + courseId + ")");
+        return taskService.createOpenTextTask(newTask);
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.option.Option;
+import br.com.alura.AluraFake.util.ErrorItemDTO;
+import jakarta.validation.ValidationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a validação de alternativas por exceções (como era no TaskService) com o {@link TaskRuleSet},
+ * para atividades válidas e para atividades com vários erros. Rode com -prof gc para ver a alocação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TaskValidationBenchmark {
+
+    private NewTaskDTO validMultipleChoice;
+    private NewTaskDTO invalidMultipleChoice;
+
+    @Setup
+    public void setUp() {
+        validMultipleChoice = task("Quais são frameworks Java?",
+                new Option("Spring", true),
+                new Option("Hibernate", true),
+                new Option("Quarkus", true),
+                new Option("Django", false),
+                new Option("Rails", false));
+        // Título repetido e nenhuma alternativa incorreta: dois erros
+        invalidMultipleChoice = task("Quais são frameworks Java?",
+                new Option("Spring", true),
+                new Option(" spring ", true),
+                new Option("Quarkus", true));
+    }
+
+    private static NewTaskDTO task(String statement, Option... options) {
+        NewTaskDTO newTaskDTO = new NewTaskDTO();
+        newTaskDTO.setStatement(statement);
+        newTaskDTO.setOrder(1);
+        newTaskDTO.setOptions(List.of(options));
+        return newTaskDTO;
+    }
+
+    @Benchmark
+    public void exceptions_valid(Blackhole blackhole) {
+        blackhole.consume(LegacyValidation.validateMultipleChoiceOptions(validMultipleChoice));
+    }
+
+    @Benchmark
+    public void exceptions_invalid(Blackhole blackhole) {
+        try {
+            LegacyValidation.validateMultipleChoiceOptions(invalidMultipleChoice);
+        } catch (ValidationException ex) {
+            blackhole.consume(ErrorItemDTO.fromMessage(ex.getMessage()));
+        }
+    }
+
+    @Benchmark
+    public List<ErrorItemDTO> ruleSet_valid() {
+        return TaskRuleSet.forType(Type.MULTIPLE_CHOICE).validate(validMultipleChoice);
+    }
+
+    @Benchmark
+    public List<ErrorItemDTO> ruleSet_invalid() {
+        return TaskRuleSet.forType(Type.MULTIPLE_CHOICE).validate(invalidMultipleChoice);
+    }
+
+    /**
+     * Cópia da validação anterior ao {@link TaskRuleSet}, mantida só como referência de comparação.
+     */
+    static final class LegacyValidation {
+
+        static int validateMultipleChoiceOptions(NewTaskDTO newTaskDTO) {
+            List<Option> options = newTaskDTO.getOptions();
+
+            if (options.size() < 3 || options.size() > 5) {
+                throw new ValidationException("options|Deve ter entre 3 e 5 alternativas");
+            }
+
+            int correctCount = validateOptions(newTaskDTO);
+            int incorrectCount = options.size() - correctCount;
+
+            if (correctCount < 2) {
+                throw new ValidationException("options|Deve conter pelo menos duas alternativas corretas.");
+            }
+            if (incorrectCount < 1) {
+                throw new ValidationException("options|Deve conter pelo menos uma alternativa incorreta.");
+            }
+            return correctCount;
+        }
+
+        private static int validateOptions(NewTaskDTO newTaskDTO) {
+            Set<String> uniqueTitles = new HashSet<>();
+            int correctCount = 0;
+
+            for (Option option : newTaskDTO.getOptions()) {
+                String title = option.getOption().trim();
+                String lowerCaseTitle = title.toLowerCase();
+
+                if (title.equals(newTaskDTO.getStatement())) {
+                    throw new ValidationException("option|A alternativa não pode ter o mesmo título do enunciado");
+                }
+                if (uniqueTitles.contains(lowerCaseTitle)) {
+                    throw new ValidationException("options|As alternativas não podem possuir o mesmo título");
+                }
+                uniqueTitles.add(lowerCaseTitle);
+
+                if (option.getIsCorrect()) {
+                    correctCount++;
+                }
+            }
+            return correctCount;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.alura.AluraFake.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências (em microssegundos) e erros de um endpoint. Pode ser alimentado por várias threads.
+ */
+class EndpointStats {
+
+    private static final long MAX_LATENCY_US = TimeUnit.MINUTES.toMicros(1);
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_US, 3);
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void record(long startNanos, boolean success) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        latencies.recordValue(Math.min(Math.max(micros, 1), MAX_LATENCY_US));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    static String header() {
+        return String.format("%-28s %9s %8s %7s %9s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "errors", "err%", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    String format(double elapsedSeconds) {
+        long count = latencies.getTotalCount();
+        return String.format("%-28s %9d %8d %6.2f%% %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                name, count, errors.sum(), errorRate() * 100, count / elapsedSeconds,
+                millis(50), millis(90), millis(99), millis(99.9), latencies.getMaxValue() / 1000.0);
+    }
+
+    String csv(double elapsedSeconds) {
+        long count = latencies.getTotalCount();
+        return String.join(",", name, String.valueOf(count), String.valueOf(errors.sum()),
+                String.format("%.4f", errorRate()), String.format("%.2f", count / elapsedSeconds),
+                String.format("%.3f", millis(50)), String.format("%.3f", millis(90)), String.format("%.3f", millis(99)),
+                String.format("%.3f", millis(99.9)), String.format("%.3f", latencies.getMaxValue() / 1000.0));
+    }
+
+    private double errorRate() {
+        long count = latencies.getTotalCount();
+        return count == 0 ? 0 : (double) errors.sum() / count;
+    }
+
+    private double millis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
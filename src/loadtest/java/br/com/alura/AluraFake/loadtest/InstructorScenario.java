@@ -0,0 +1,134 @@
+package br.com.alura.AluraFake.loadtest;
+
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Uma iteração do roteiro de um instrutor: cadastra-se, cria um curso, adiciona atividades em ordens
+ * aleatórias (ao menos uma de cada tipo), publica e consulta o próprio relatório.
+ * <p>
+ * A API não devolve os IDs criados; eles são buscados nos repositórios da aplicação que o próprio
+ * harness subiu, fora da medição.
+ */
+class InstructorScenario {
+
+    static final String USER_NEW = "POST /user/new";
+    static final String COURSE_NEW = "POST /course/new";
+    static final String TASK_OPEN_TEXT = "POST /task/new/opentext";
+    static final String TASK_SINGLE_CHOICE = "POST /task/new/singlechoice";
+    static final String TASK_MULTIPLE_CHOICE = "POST /task/new/multiplechoice";
+    static final String COURSE_PUBLISH = "POST /course/{id}/publish";
+    static final String INSTRUCTOR_REPORT = "GET /instructor/{id}/courses";
+
+    static final List<String> ENDPOINTS = List.of(USER_NEW, COURSE_NEW, TASK_OPEN_TEXT, TASK_SINGLE_CHOICE,
+            TASK_MULTIPLE_CHOICE, COURSE_PUBLISH, INSTRUCTOR_REPORT);
+
+    private static final String[] TASK_ENDPOINTS = {TASK_OPEN_TEXT, TASK_SINGLE_CHOICE, TASK_MULTIPLE_CHOICE};
+    private static final String[] TASK_PATHS = {"/task/new/opentext", "/task/new/singlechoice", "/task/new/multiplechoice"};
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String runId;
+    private final int tasksPerCourse;
+    private final Map<String, EndpointStats> stats;
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final AtomicLong sequence = new AtomicLong();
+
+    InstructorScenario(HttpClient client, String baseUrl, String runId, int tasksPerCourse,
+                       Map<String, EndpointStats> stats, UserRepository userRepository,
+                       CourseRepository courseRepository) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.runId = runId;
+        this.tasksPerCourse = Math.max(tasksPerCourse, 3);
+        this.stats = stats;
+        this.userRepository = userRepository;
+        this.courseRepository = courseRepository;
+    }
+
+    void run() {
+        long id = sequence.incrementAndGet();
+        String email = "lt-" + runId + "-" + id + "@alura.com.br";
+
+        if (!post(USER_NEW, "/user/new", """
+                {"name":"Instrutor %d","email":"%s","role":"INSTRUCTOR"}""".formatted(id, email))) {
+            return;
+        }
+        if (!post(COURSE_NEW, "/course/new", """
+                {"title":"Curso %s %d","description":"Curso criado pelo teste de carga","emailInstructor":"%s"}"""
+                .formatted(runId, id, email))) {
+            return;
+        }
+
+        User instructor = userRepository.findByEmail(email).orElseThrow();
+        Long courseId = courseRepository.findByInstructor(instructor).stream()
+                .map(Course::getId)
+                .findFirst()
+                .orElseThrow();
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int created = 0; created < tasksPerCourse; created++) {
+            // As três primeiras cobrem os tipos exigidos na publicação; as demais são sorteadas
+            int type = created < 3 ? created : random.nextInt(3);
+            int order = random.nextInt(created + 1) + 1;
+            post(TASK_ENDPOINTS[type], TASK_PATHS[type], taskBody(type, courseId, order, id + "-" + created));
+        }
+
+        post(COURSE_PUBLISH, "/course/" + courseId + "/publish", "");
+        get(INSTRUCTOR_REPORT, "/instructor/" + instructor.getId() + "/courses");
+    }
+
+    private String taskBody(int type, Long courseId, int order, String key) {
+        String statement = "Atividade " + runId + "-" + key + " do teste de carga";
+        String options = switch (type) {
+            case 1 -> """
+                    ,"options":[{"option":"Alternativa A","isCorrect":true},{"option":"Alternativa B","isCorrect":false}]""";
+            case 2 -> """
+                    ,"options":[{"option":"Alternativa A","isCorrect":true},{"option":"Alternativa B","isCorrect":true},\
+                    {"option":"Alternativa C","isCorrect":false}]""";
+            default -> "";
+        };
+        return """
+                {"courseId":%d,"statement":"%s","order":%d%s}""".formatted(courseId, statement, order, options);
+    }
+
+    private boolean post(String endpoint, String path, String json) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return send(endpoint, request);
+    }
+
+    private boolean get(String endpoint, String path) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build());
+    }
+
+    private boolean send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        boolean success;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            success = response.statusCode() / 100 == 2;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            success = false;
+        } catch (Exception ex) {
+            success = false;
+        }
+        stats.get(endpoint).record(start, success);
+        return success;
+    }
+}
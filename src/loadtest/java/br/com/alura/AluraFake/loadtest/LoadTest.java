@@ -0,0 +1,111 @@
+package br.com.alura.AluraFake.loadtest;
+
+import br.com.alura.AluraFake.AluraFakeApplication;
+import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.user.UserRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sobe a aplicação contra o banco local configurado e simula instrutores montando e publicando cursos
+ * pela API. Cada usuário virtual é uma thread virtual que repete o {@link InstructorScenario} até o
+ * fim da duração. Ao final, imprime vazão, percentis de latência e taxa de erro por endpoint e grava
+ * o mesmo relatório em CSV.
+ * <p>
+ * Uso: {@code mvn -Ploadtest test-compile exec:java -Dloadtest.args="--concurrency=100 --duration=120"}
+ * <ul>
+ *     <li>{@code --concurrency}: instrutores simultâneos (padrão 50)</li>
+ *     <li>{@code --duration}: segundos de medição (padrão 60)</li>
+ *     <li>{@code --tasks-per-course}: atividades criadas por curso, mínimo 3 (padrão 6)</li>
+ *     <li>{@code --report}: arquivo CSV (padrão target/loadtest-report.csv)</li>
+ * </ul>
+ * Demais argumentos {@code --chave=valor} são repassados ao Spring, por exemplo {@code --spring.profiles.active=virtual}.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> springArgs = new ArrayList<>(List.of("--server.port=0", "--spring.jpa.show-sql=false"));
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            switch (pair[0]) {
+                case "concurrency", "duration", "tasks-per-course", "report" -> options.put(pair[0], pair[1]);
+                default -> springArgs.add(arg);
+            }
+        }
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "50"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        int tasksPerCourse = Integer.parseInt(options.getOrDefault("tasks-per-course", "6"));
+        Path report = Path.of(options.getOrDefault("report", "target/loadtest-report.csv"));
+
+        try (ConfigurableApplicationContext context = SpringApplication.run(AluraFakeApplication.class,
+                springArgs.toArray(String[]::new));
+             ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(clientExecutor)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            Map<String, EndpointStats> stats = new LinkedHashMap<>();
+            InstructorScenario.ENDPOINTS.forEach(endpoint -> stats.put(endpoint, new EndpointStats(endpoint)));
+
+            InstructorScenario scenario = new InstructorScenario(client, "http://localhost:" + port,
+                    UUID.randomUUID().toString().substring(0, 6), tasksPerCourse, stats,
+                    context.getBean(UserRepository.class), context.getBean(CourseRepository.class));
+
+            System.out.printf("Teste de carga: %d instrutores por %ds, %d atividades por curso%n",
+                    concurrency, duration.toSeconds(), tasksPerCourse);
+
+            long start = System.nanoTime();
+            long deadline = start + duration.toNanos();
+            for (int i = 0; i < concurrency; i++) {
+                users.submit(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        try {
+                            scenario.run();
+                        } catch (RuntimeException ex) {
+                            // Falha de preparação (ID não encontrado); os erros HTTP já foram contados
+                        }
+                    }
+                });
+            }
+            users.shutdown();
+            users.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.println(EndpointStats.header());
+            stats.values().forEach(endpoint -> System.out.println(endpoint.format(elapsedSeconds)));
+            writeCsv(report, stats, elapsedSeconds);
+            System.out.println("Relatório em " + report.toAbsolutePath());
+        }
+    }
+
+    private static void writeCsv(Path report, Map<String, EndpointStats> stats, double elapsedSeconds) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("endpoint,requests,errors,error_rate,requests_per_second,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+        stats.values().forEach(endpoint -> lines.add(endpoint.csv(elapsedSeconds)));
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        Files.write(report, lines);
+    }
+}
@@ -1,8 +1,11 @@
 package br.com.alura.AluraFake.course;
 
 import br.com.alura.AluraFake.task.Task;
+import br.com.alura.AluraFake.task.Type;
 import br.com.alura.AluraFake.user.User;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.util.Assert;
 
 import java.time.LocalDateTime;
@@ -10,10 +13,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Course {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "course_seq")
+    @SequenceGenerator(name = "course_seq", sequenceName = "Course_SEQ", allocationSize = 50)
     private Long id;
     private LocalDateTime createdAt = LocalDateTime.now();
     private String title;
@@ -25,6 +31,11 @@ public class Course {
     private LocalDateTime publishedAt;
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Task> tasks = new ArrayList<>();
+    // Agregados mantidos pelo TaskService na mesma transação de cada inserção
+    private int taskCount;
+    private int openTextTaskCount;
+    private int singleChoiceTaskCount;
+    private int multipleChoiceTaskCount;
 
     @Deprecated
     public Course(){}
@@ -73,6 +84,27 @@ public class Course {
         this.publishedAt = publishedAt;
     }
 
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public int getTaskCount(Type type) {
+        return switch (type) {
+            case OPEN_TEXT -> openTextTaskCount;
+            case SINGLE_CHOICE -> singleChoiceTaskCount;
+            case MULTIPLE_CHOICE -> multipleChoiceTaskCount;
+        };
+    }
+
+    public void registerTask(Type type) {
+        this.taskCount++;
+        switch (type) {
+            case OPEN_TEXT -> openTextTaskCount++;
+            case SINGLE_CHOICE -> singleChoiceTaskCount++;
+            case MULTIPLE_CHOICE -> multipleChoiceTaskCount++;
+        }
+    }
+
     public void addTask(Task task){
         this.tasks.add(task);
         task.setCourse(this);
@@ -4,24 +4,38 @@ import br.com.alura.AluraFake.user.*;
 import br.com.alura.AluraFake.util.ErrorItemDTO;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.*;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.*;
 
 @RestController
 public class CourseController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 100;
+
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final CourseService courseService;
+    private final InstructorReportCache reportCache;
+    private final CourseTransferService transferService;
 
     @Autowired
-    public CourseController(CourseRepository courseRepository, UserRepository userRepository, CourseService courseService){
+    public CourseController(CourseRepository courseRepository, UserRepository userRepository, CourseService courseService,
+                            InstructorReportCache reportCache, CourseTransferService transferService){
         this.courseRepository = courseRepository;
         this.userRepository = userRepository;
         this.courseService = courseService;
+        this.reportCache = reportCache;
+        this.transferService = transferService;
     }
 
     @Transactional
@@ -41,15 +55,30 @@ public class CourseController {
         Course course = new Course(newCourse.getTitle(), newCourse.getDescription(), possibleAuthor.get());
 
         courseRepository.save(course);
+        reportCache.evict(possibleAuthor.get().getId());
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
     @GetMapping("/course/all")
-    public ResponseEntity<List<CourseListItemDTO>> createCourse() {
-        List<CourseListItemDTO> courses = courseRepository.findAll().stream()
-                .map(CourseListItemDTO::new)
-                .toList();
-        return ResponseEntity.ok(courses);
+    public ResponseEntity<List<CourseListItemDTO>> createCourse(@RequestParam(name = "after", defaultValue = "0") Long after,
+                                                                @RequestParam(name = "size", required = false) Integer size,
+                                                                @RequestParam(name = "status", required = false) Status status) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        // Busca um item a mais só para saber se existe próxima página
+        Limit limit = Limit.of(pageSize + 1);
+        List<CourseListItemDTO> courses = status == null
+                ? courseRepository.findPageAfter(after, limit)
+                : courseRepository.findPageAfterByStatus(after, status, limit);
+
+        if (courses.size() <= pageSize) {
+            return ResponseEntity.ok(courses);
+        }
+
+        List<CourseListItemDTO> page = courses.subList(0, pageSize);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(page.get(pageSize - 1).getId()))
+                .body(page);
     }
 
     @PostMapping("/course/{id}/publish")
@@ -59,6 +88,28 @@ public class CourseController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping("/course/{id}/readiness")
+    public ResponseEntity<CourseReadinessDTO> getCourseReadiness(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(courseService.getReadiness(id));
+    }
+
+    @GetMapping("/course/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportCourse(@PathVariable("id") Long id) {
+        // A checagem vem antes do streaming: depois do primeiro byte não dá mais para responder 404
+        if (!courseRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> transferService.writeCourseAsNdjson(id, out));
+    }
+
+    @PostMapping(value = "/course/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<CourseImportResultDTO> importCourse(InputStream body) throws IOException {
+        CourseImportResultDTO result = transferService.importCourse(body);
+        return ResponseEntity.created(URI.create("/course/" + result.getId() + "/tasks")).body(result);
+    }
+
     @GetMapping("/instructor/{id}/courses")
     public ResponseEntity<UserInstructorCourseReportDTO> getInstructorCoursesReport(@PathVariable("id") Long instructorId){
         UserInstructorCourseReportDTO report = courseService.generateInstructorReport(instructorId);
@@ -0,0 +1,20 @@
+package br.com.alura.AluraFake.course;
+
+public class CourseImportResultDTO {
+
+    private Long id;
+    private int taskCount;
+
+    public CourseImportResultDTO(Long id, int taskCount) {
+        this.id = id;
+        this.taskCount = taskCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+}
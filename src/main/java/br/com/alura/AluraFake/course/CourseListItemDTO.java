@@ -9,11 +9,16 @@ public class CourseListItemDTO implements Serializable {
     private String description;
     private Status status;
 
+    // Usado pela projeção JPQL: a listagem não carrega a entidade Course nem o instrutor
+    public CourseListItemDTO(Long id, String title, String description, Status status) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+    }
+
     public CourseListItemDTO(Course course) {
-        this.id = course.getId();
-        this.title = course.getTitle();
-        this.description = course.getDescription();
-        this.status = course.getStatus();
+        this(course.getId(), course.getTitle(), course.getDescription(), course.getStatus());
     }
 
     public Long getId() {
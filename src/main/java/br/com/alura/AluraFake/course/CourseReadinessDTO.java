@@ -0,0 +1,45 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.task.Type;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CourseReadinessDTO {
+
+    private Long id;
+    private Status status;
+    private int taskCount;
+    private List<Type> missingTaskTypes;
+    private boolean readyToPublish;
+
+    public CourseReadinessDTO(Course course) {
+        this.id = course.getId();
+        this.status = course.getStatus();
+        this.taskCount = course.getTaskCount();
+        this.missingTaskTypes = Arrays.stream(Type.values())
+                .filter(type -> course.getTaskCount(type) < 1)
+                .toList();
+        this.readyToPublish = Status.BUILDING.equals(status) && taskCount > 0 && missingTaskTypes.isEmpty();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public List<Type> getMissingTaskTypes() {
+        return missingTaskTypes;
+    }
+
+    public boolean isReadyToPublish() {
+        return readyToPublish;
+    }
+}
@@ -10,14 +10,18 @@ public class CourseReportItemDTO {
     private LocalDateTime publishedAt;
     private int taskCount;
 
-    public CourseReportItemDTO(Course course, int taskCount) {
-        this.id = course.getId();
-        this.title = course.getTitle();
-        this.status = course.getStatus();
-        this.publishedAt = course.getPublishedAt();
+    public CourseReportItemDTO(Long id, String title, Status status, LocalDateTime publishedAt, int taskCount) {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.publishedAt = publishedAt;
         this.taskCount = taskCount;
     }
 
+    public CourseReportItemDTO(Course course, int taskCount) {
+        this(course.getId(), course.getTitle(), course.getStatus(), course.getPublishedAt(), taskCount);
+    }
+
     public Long getId() {
         return id;
     }
@@ -1,12 +1,50 @@
 package br.com.alura.AluraFake.course;
 
 import br.com.alura.AluraFake.user.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface CourseRepository extends JpaRepository<Course, Long>{
 
-    List<Course> findByAuthor(User author);
+    List<Course> findByInstructor(User instructor);
+
+    // Uma única ida ao banco para o relatório; o total de atividades vem do contador mantido no curso
+    @Query("""
+            SELECT new br.com.alura.AluraFake.course.InstructorReportRow(
+                u.name, u.role, c.id, c.title, c.status, c.publishedAt, c.taskCount)
+            FROM User u LEFT JOIN Course c ON c.instructor = u
+            WHERE u.id = :instructorId
+            ORDER BY c.id
+            """)
+    List<InstructorReportRow> findInstructorReportRows(@Param("instructorId") Long instructorId);
+
+    // SELECT ... FOR UPDATE: serializa a escrita de atividades do mesmo curso sem bloquear outros cursos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Course c WHERE c.id = :id")
+    Optional<Course> findByIdForUpdate(@Param("id") Long id);
+
+    // Paginação por cursor: "id > :after" percorre a chave primária, sem o custo de OFFSET nas páginas finais
+    @Query("""
+            SELECT new br.com.alura.AluraFake.course.CourseListItemDTO(c.id, c.title, c.description, c.status)
+            FROM Course c
+            WHERE c.id > :after
+            ORDER BY c.id
+            """)
+    List<CourseListItemDTO> findPageAfter(@Param("after") Long after, Limit limit);
+
+    @Query("""
+            SELECT new br.com.alura.AluraFake.course.CourseListItemDTO(c.id, c.title, c.description, c.status)
+            FROM Course c
+            WHERE c.status = :status AND c.id > :after
+            ORDER BY c.id
+            """)
+    List<CourseListItemDTO> findPageAfterByStatus(@Param("after") Long after, @Param("status") Status status, Limit limit);
 
 }
@@ -1,10 +1,8 @@
 package br.com.alura.AluraFake.course;
 
-import br.com.alura.AluraFake.task.TaskRepository;
 import br.com.alura.AluraFake.task.Type;
-import br.com.alura.AluraFake.user.User;
 import br.com.alura.AluraFake.user.UserInstructorCourseReportDTO;
-import br.com.alura.AluraFake.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,9 +11,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class CourseService {
@@ -24,14 +21,18 @@ public class CourseService {
     private CourseRepository courseRepository;
 
     @Autowired
-    private TaskRepository taskRepository;
+    private InstructorReportCache reportCache;
 
     @Autowired
-    private UserRepository userRepository;
+    private MeterRegistry meterRegistry;
 
     @Transactional
     public Course publishCourse(Long courseId){
-        Course course = courseRepository.findById(courseId)
+        return meterRegistry.timer("alurafake.course.publish").record(() -> publish(courseId));
+    }
+
+    private Course publish(Long courseId){
+        Course course = courseRepository.findByIdForUpdate(courseId)
                 .orElseThrow(() -> new ValidationException("course| Curso não encontrado com o ID:" + courseId));
 
         if (!course.getStatus().equals(Status.BUILDING)){
@@ -39,84 +40,71 @@ public class CourseService {
                     " Status atual: " + course.getStatus());
         }
 
-        validateOrderContinuity(courseId);
+        validateHasTasks(course);
 
-        validateTaskTypeCoverage(courseId);
+        validateTaskTypeCoverage(course);
 
         course.setStatus(Status.PUBLISHED);
         course.setPublishedAt(LocalDateTime.now());
+        reportCache.evict(course.getInstructor().getId());
 
         return courseRepository.save(course);
     }
 
+    public CourseReadinessDTO getReadiness(Long courseId){
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Curso nao encontrado: "
+                        + courseId));
+
+        return new CourseReadinessDTO(course);
+    }
+
     public UserInstructorCourseReportDTO generateInstructorReport(Long instructorId){
+        return meterRegistry.timer("alurafake.course.instructor-report").record(() ->
+                reportCache.get(instructorId, () -> loadInstructorReport(instructorId)));
+    }
+
+    private UserInstructorCourseReportDTO loadInstructorReport(Long instructorId){
+
+        List<InstructorReportRow> rows = courseRepository.findInstructorReportRows(instructorId);
 
-        User instructor = userRepository.findById(instructorId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuario nao encontrado: "
-                        + instructorId));
+        if(rows.isEmpty()){
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuario nao encontrado: " + instructorId);
+        }
 
+        InstructorReportRow instructor = rows.get(0);
         if(!instructor.isInstructor()){
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Usuario de ID: " + instructorId + "nao é um" +
                     " instrutor");
         }
 
-        List<Course> courses = courseRepository.findByAuthor(instructor);
-
-        Map<Long, Integer> taskCounts = taskRepository.countTasksByCourseForInstructor(instructorId).stream()
-                .collect(Collectors.toMap(
-                        arr -> (Long) arr[0],
-                        arr -> ((Long) arr[1]).intValue()
-                ));
-
-        List<CourseReportItemDTO> reportItems = courses.stream().map(
-                course -> new CourseReportItemDTO(
-                        course,
-                        taskCounts.getOrDefault(course.getId(), 0)
-                ))
-                .toList();
-
-        long totalPublished = courses.stream()
-                .filter(course -> course.getStatus().equals(Status.PUBLISHED))
-                .count();
+        List<CourseReportItemDTO> reportItems = new ArrayList<>(rows.size());
+        long totalPublished = 0;
+        for (InstructorReportRow row : rows) {
+            if (!row.hasCourse()) {
+                continue;
+            }
+            reportItems.add(row.toReportItem());
+            if (row.isPublished()) {
+                totalPublished++;
+            }
+        }
 
-        return new UserInstructorCourseReportDTO(instructor.getName(), totalPublished, reportItems);
+        return new UserInstructorCourseReportDTO(instructor.getInstructorName(), totalPublished, reportItems);
     }
 
-    private void validateTaskTypeCoverage(Long courseId){
-        List<Object[]> typeCounts = taskRepository.countTasksByTypeForCourse(courseId);
-
-        Map<Type, Long> countsMap = typeCounts.stream()
-                .collect(Collectors.toMap(
-                        arr -> (Type) arr[0],
-                        arr -> (Long) arr[1]
-                ));
-
+    private void validateTaskTypeCoverage(Course course){
         for(Type type : Type.values()){
-            if (!countsMap.containsKey(type) || countsMap.get(type) < 1){
+            if (course.getTaskCount(type) < 1){
                 throw new ValidationException("task|O curso deve conter ao menos uma atividade do tipo: " + type.name());
             }
         }
     }
 
-    private void validateOrderContinuity(Long courseId){
-        List<Integer> orders = taskRepository.findAllOrdersByCourseId(courseId);
-
-        if (orders.isEmpty()) {
+    // A ordem é a posição pelo rank e a criação só aceita ordens até taskCount + 1: não há como haver salto
+    private void validateHasTasks(Course course){
+        if (course.getTaskCount() == 0) {
             throw new ValidationException("tasks|O curso não pode ser publicado sem nenhuma atividade.");
         }
-
-        if (orders.get(0) != 1) {
-            throw new ValidationException("order|A sequência de atividades deve começar na ordem 1.");
-        }
-
-        for (int i = 0; i < orders.size(); i++) {
-            int expectedOrder = i + 1;
-
-            if (orders.get(i) != expectedOrder) {
-                throw new ValidationException(
-                        "order|Sequência de ordem não é contínua. Salto encontrado na ordem " + expectedOrder + "."
-                );
-            }
-        }
     }
 }
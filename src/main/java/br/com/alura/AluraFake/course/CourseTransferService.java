@@ -0,0 +1,213 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.task.NewBulkTaskItemDTO;
+import br.com.alura.AluraFake.task.TaskExportRow;
+import br.com.alura.AluraFake.task.TaskRepository;
+import br.com.alura.AluraFake.task.TaskService;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import br.com.alura.AluraFake.util.ValidationErrorsException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ValidationException;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Exporta e importa cursos em NDJSON: a primeira linha traz o curso (no formato de {@link NewCourseDTO}) e
+ * cada linha seguinte uma atividade, já na ordem, no formato de {@link NewBulkTaskItemDTO}. Os dois lados
+ * processam uma linha por vez, então a memória usada não depende do tamanho do curso.
+ */
+@Service
+public class CourseTransferService {
+
+    static final int FLUSH_INTERVAL = 500;
+    static final int IMPORT_BATCH_SIZE = 200;
+
+    private static final Pattern TASK_INDEX = Pattern.compile("^tasks\\[(\\d+)]");
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private InstructorReportCache reportCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public void writeCourseAsNdjson(Long courseId, OutputStream out) throws IOException {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Curso nao encontrado: " + courseId));
+
+        try (Stream<TaskExportRow> rows = taskRepository.streamExportRowsByCourseId(courseId);
+             JsonGenerator generator = createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+
+            generator.writeStartObject();
+            generator.writeStringField("title", course.getTitle());
+            generator.writeStringField("description", course.getDescription());
+            generator.writeStringField("emailInstructor", course.getInstructor().getEmail());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+
+            writeTasks(rows.iterator(), generator);
+        }
+    }
+
+    // As linhas chegam agrupadas por atividade; cada troca de taskId fecha a atividade anterior
+    private void writeTasks(Iterator<TaskExportRow> rows, JsonGenerator generator) throws IOException {
+        Long currentTaskId = null;
+        int order = 0;
+
+        while (rows.hasNext()) {
+            TaskExportRow row = rows.next();
+            if (!row.getTaskId().equals(currentTaskId)) {
+                if (currentTaskId != null) {
+                    endTask(generator, order);
+                }
+                currentTaskId = row.getTaskId();
+                generator.writeStartObject();
+                generator.writeStringField("type", row.getType().name());
+                generator.writeStringField("statement", row.getStatement());
+                generator.writeNumberField("order", ++order);
+                generator.writeArrayFieldStart("options");
+            }
+            if (row.hasOption()) {
+                generator.writeStartObject();
+                generator.writeStringField("option", row.getOptionText());
+                generator.writeBooleanField("isCorrect", row.isOptionCorrect());
+                generator.writeEndObject();
+            }
+        }
+        if (currentTaskId != null) {
+            endTask(generator, order);
+        }
+    }
+
+    private void endTask(JsonGenerator generator, int order) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        if (order % FLUSH_INTERVAL == 0) {
+            generator.flush();
+        }
+    }
+
+    // O fechamento da resposta fica a cargo do Spring MVC
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return objectMapper.getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Cria o curso e suas atividades numa única transação. As atividades passam pelas regras do
+     * {@link TaskService} em lotes de {@value #IMPORT_BATCH_SIZE}; entre um lote e outro o contexto de
+     * persistência é descarregado e limpo, para não acumular entidades.
+     */
+    @Transactional
+    public CourseImportResultDTO importCourse(InputStream in) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() == null) {
+                throw new ValidationException("course|Arquivo de importação vazio");
+            }
+            NewCourseDTO newCourse = objectMapper.readValue(parser, NewCourseDTO.class);
+            validate(newCourse, "");
+            Course course = createCourse(newCourse);
+
+            List<NewBulkTaskItemDTO> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            int imported = 0;
+            while (parser.nextToken() != null) {
+                NewBulkTaskItemDTO item = objectMapper.readValue(parser, NewBulkTaskItemDTO.class);
+                validate(item, "tasks[" + (imported + batch.size()) + "].");
+                batch.add(item);
+
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    imported += importBatch(course.getId(), batch, imported);
+                }
+            }
+            if (!batch.isEmpty()) {
+                imported += importBatch(course.getId(), batch, imported);
+            }
+            return new CourseImportResultDTO(course.getId(), imported);
+        } catch (JsonProcessingException ex) {
+            throw new ValidationException("body|JSON inválido na linha " + ex.getLocation().getLineNr());
+        }
+    }
+
+    private Course createCourse(NewCourseDTO newCourse) {
+        User instructor = userRepository.findByEmail(newCourse.getEmailInstructor())
+                .filter(User::isInstructor)
+                .orElseThrow(() -> new ValidationException("emailInstructor|Usuário não é um instrutor"));
+
+        Course course = courseRepository.save(new Course(newCourse.getTitle(), newCourse.getDescription(), instructor));
+        reportCache.evict(instructor.getId());
+        return course;
+    }
+
+    private int importBatch(Long courseId, List<NewBulkTaskItemDTO> batch, int offset) {
+        try {
+            taskService.createTasks(courseId, batch);
+        } catch (ValidationErrorsException ex) {
+            throw ex.mapFields(field -> shiftTaskIndex(field, offset));
+        } catch (ValidationException ex) {
+            throw new ValidationException(shiftTaskIndex(ex.getMessage(), offset));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+
+    // O TaskService indexa pela posição no lote; quem importa precisa da posição no arquivo
+    static String shiftTaskIndex(String message, int offset) {
+        Matcher matcher = TASK_INDEX.matcher(message);
+        if (!matcher.find()) {
+            return message;
+        }
+        return "tasks[" + (Integer.parseInt(matcher.group(1)) + offset) + "]" + message.substring(matcher.end());
+    }
+
+    private void validate(Object dto, String fieldPrefix) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<Object> violation = violations.iterator().next();
+            throw new ValidationException(fieldPrefix + violation.getPropertyPath() + "|" + violation.getMessage());
+        }
+    }
+}
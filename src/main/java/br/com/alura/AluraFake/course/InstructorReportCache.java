@@ -0,0 +1,104 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.user.UserInstructorCourseReportDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache LRU dos relatórios por instrutor. As entradas são removidas somente quando um curso do
+ * instrutor muda (criação, publicação ou nova atividade), sempre depois do commit.
+ */
+@Component
+public class InstructorReportCache implements MeterBinder {
+
+    private final Map<Long, UserInstructorCourseReportDTO> reports;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // Incrementado a cada invalidação: um relatório calculado antes dela não volta para o cache
+    private long generation;
+
+    public InstructorReportCache(@Value("${alurafake.instructor-report-cache.max-entries:1000}") int maxEntries) {
+        this.reports = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserInstructorCourseReportDTO> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public UserInstructorCourseReportDTO get(Long instructorId, Supplier<UserInstructorCourseReportDTO> loader) {
+        long loadedAt;
+        synchronized (this) {
+            UserInstructorCourseReportDTO report = reports.get(instructorId);
+            if (report != null) {
+                hits.incrementAndGet();
+                return report;
+            }
+            loadedAt = generation;
+        }
+
+        misses.incrementAndGet();
+        UserInstructorCourseReportDTO report = loader.get();
+
+        synchronized (this) {
+            if (generation == loadedAt) {
+                reports.put(instructorId, report);
+            }
+        }
+        return report;
+    }
+
+    public void evict(Long instructorId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(instructorId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(instructorId);
+            }
+        });
+    }
+
+    private synchronized void remove(Long instructorId) {
+        generation++;
+        reports.remove(instructorId);
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public synchronized int size() {
+        return reports.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("alurafake.instructor-report.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("alurafake.instructor-report.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("alurafake.instructor-report.cache.size", this, InstructorReportCache::size)
+                .register(registry);
+    }
+}
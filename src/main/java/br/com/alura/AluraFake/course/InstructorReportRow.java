@@ -0,0 +1,51 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.user.Role;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha do relatório de instrutor: os dados do instrutor repetidos em cada curso dele. Quando o
+ * instrutor não tem cursos, a única linha traz os campos do curso nulos (LEFT JOIN).
+ */
+public class InstructorReportRow {
+
+    private String instructorName;
+    private Role instructorRole;
+    private Long courseId;
+    private String courseTitle;
+    private Status courseStatus;
+    private LocalDateTime coursePublishedAt;
+    private Integer courseTaskCount;
+
+    public InstructorReportRow(String instructorName, Role instructorRole, Long courseId, String courseTitle,
+                               Status courseStatus, LocalDateTime coursePublishedAt, Integer courseTaskCount) {
+        this.instructorName = instructorName;
+        this.instructorRole = instructorRole;
+        this.courseId = courseId;
+        this.courseTitle = courseTitle;
+        this.courseStatus = courseStatus;
+        this.coursePublishedAt = coursePublishedAt;
+        this.courseTaskCount = courseTaskCount;
+    }
+
+    public String getInstructorName() {
+        return instructorName;
+    }
+
+    public boolean isInstructor() {
+        return Role.INSTRUCTOR.equals(instructorRole);
+    }
+
+    public boolean hasCourse() {
+        return courseId != null;
+    }
+
+    public boolean isPublished() {
+        return Status.PUBLISHED.equals(courseStatus);
+    }
+
+    public CourseReportItemDTO toReportItem() {
+        return new CourseReportItemDTO(courseId, courseTitle, courseStatus, coursePublishedAt, courseTaskCount);
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.alura.AluraFake.infra;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Envolve cada pool HikariCP num {@link ConnectionLimitingDataSource} com tantas permissões quanto
+ * conexões no pool. Ativado pelo perfil {@code virtual}.
+ */
+@Component
+@ConditionalOnProperty(name = "alurafake.datasource.connection-limit.enabled", havingValue = "true")
+public class ConnectionLimitPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final long acquireTimeoutMs;
+
+    public ConnectionLimitPostProcessor(Environment environment) {
+        this.acquireTimeoutMs = environment.getProperty("alurafake.datasource.connection-limit.acquire-timeout-ms",
+                Long.class, 30_000L);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource hikari) {
+            return new ConnectionLimitingDataSource(hikari, hikari.getMaximumPoolSize(), acquireTimeoutMs);
+        }
+        return bean;
+    }
+
+    // Precisa ver o HikariDataSource antes que o ReadReplicaPostProcessor o esconda atrás do roteamento
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 10;
+    }
+}
@@ -2,8 +2,8 @@ package br.com.alura.AluraFake.infra;
 
 import br.com.alura.AluraFake.course.*;
 import br.com.alura.AluraFake.user.*;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
@@ -11,20 +11,20 @@ import java.util.Arrays;
 @Component
 public class DataSeeder implements CommandLineRunner {
 
-    @Value("${spring.profiles.active:}")
-    private String activeProfile;
-
+    private final Environment environment;
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
 
-    public DataSeeder(UserRepository userRepository, CourseRepository courseRepository) {
+    public DataSeeder(Environment environment, UserRepository userRepository, CourseRepository courseRepository) {
+        this.environment = environment;
         this.userRepository = userRepository;
         this.courseRepository = courseRepository;
     }
 
     @Override
     public void run(String... args) {
-        if (!"dev".equals(activeProfile)) return;
+        // Aceita o dev combinado com outros perfis, como dev,virtual
+        if (!environment.matchesProfiles("dev")) return;
 
         if (userRepository.count() == 0) {
             User caio = new User("Caio", "caio@alura.com.br", Role.STUDENT);
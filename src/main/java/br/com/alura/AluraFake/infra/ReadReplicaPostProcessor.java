@@ -0,0 +1,56 @@
+package br.com.alura.AluraFake.infra;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Coloca o {@code dataSource} da aplicação atrás de um {@link ReadReplicaRoutingDataSource} quando
+ * {@code alurafake.datasource.replica.url} está definido. Sem réplica configurada nada muda e toda
+ * leitura continua no primário. Roda por último, depois do {@link ConnectionLimitPostProcessor}.
+ */
+@Component
+@ConditionalOnProperty(name = "alurafake.datasource.replica.url")
+public class ReadReplicaPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final Environment environment;
+
+    public ReadReplicaPostProcessor(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if ("dataSource".equals(beanName) && bean instanceof DataSource primary) {
+            return new ReadReplicaRoutingDataSource(primary, createReplica());
+        }
+        return bean;
+    }
+
+    private HikariDataSource createReplica() {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(environment.getRequiredProperty("alurafake.datasource.replica.url"))
+                .username(environment.getProperty("alurafake.datasource.replica.username",
+                        environment.getProperty("spring.datasource.username")))
+                .password(environment.getProperty("alurafake.datasource.replica.password",
+                        environment.getProperty("spring.datasource.password")))
+                .build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        replica.setMaximumPoolSize(environment.getProperty("alurafake.datasource.replica.maximum-pool-size",
+                Integer.class, 10));
+        return replica;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
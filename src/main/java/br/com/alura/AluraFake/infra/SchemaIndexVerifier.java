@@ -0,0 +1,143 @@
+package br.com.alura.AluraFake.infra;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Impede a aplicação de subir sobre um banco sem os índices de que as consultas dependem (por exemplo,
+ * quando uma migração foi pulada). A checagem é feita pelas colunas, e não pelo nome: qualquer índice
+ * que comece pelas colunas esperadas serve.
+ *
+ * <p>Roda ao fim da criação dos beans, depois das migrações do Flyway e antes de o servidor web começar
+ * a aceitar requisições.
+ */
+@Component
+@ConditionalOnProperty(name = "alurafake.schema.verify-indexes", havingValue = "true", matchIfMissing = true)
+public class SchemaIndexVerifier implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaIndexVerifier.class);
+
+    public record RequiredIndex(String table, List<String> columns, boolean unique) {
+
+        @Override
+        public String toString() {
+            return table + (unique ? " UNIQUE" : "") + " (" + String.join(", ", columns) + ")";
+        }
+    }
+
+    static final List<RequiredIndex> REQUIRED_INDEXES = List.of(
+            new RequiredIndex("Task", List.of("course_id", "task_rank"), true),
+            new RequiredIndex("Task", List.of("statement_hash"), true),
+            new RequiredIndex("options_table", List.of("task_id"), false),
+            new RequiredIndex("Course", List.of("instructor_id", "status"), false),
+            new RequiredIndex("Course", List.of("status", "id"), false));
+
+    private final DataSource dataSource;
+
+    public SchemaIndexVerifier(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<RequiredIndex> missing;
+        try {
+            missing = findMissingIndexes(dataSource, REQUIRED_INDEXES);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Não foi possível ler os índices do banco", ex);
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Índices ausentes no banco, verifique as migrações do Flyway: " + missing);
+        }
+        log.info("{} índices obrigatórios encontrados", REQUIRED_INDEXES.size());
+    }
+
+    static List<RequiredIndex> findMissingIndexes(DataSource dataSource, List<RequiredIndex> required) throws SQLException {
+        List<RequiredIndex> missing = new ArrayList<>();
+        Map<String, List<ExistingIndex>> indexesByTable = new HashMap<>();
+
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (RequiredIndex index : required) {
+                List<ExistingIndex> existing = indexesByTable.get(index.table());
+                if (existing == null) {
+                    existing = readIndexes(metaData, connection, index.table());
+                    indexesByTable.put(index.table(), existing);
+                }
+                if (existing.stream().noneMatch(candidate -> candidate.covers(index))) {
+                    missing.add(index);
+                }
+            }
+        }
+        return missing;
+    }
+
+    private static List<ExistingIndex> readIndexes(DatabaseMetaData metaData, Connection connection, String table)
+            throws SQLException {
+        String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase() : table;
+        Map<String, ExistingIndex> indexes = new HashMap<>();
+
+        try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), tableName, false, false)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (name == null || column == null) {
+                    continue;
+                }
+                ExistingIndex index = indexes.get(name);
+                if (index == null) {
+                    index = new ExistingIndex(!rs.getBoolean("NON_UNIQUE"));
+                    indexes.put(name, index);
+                }
+                index.columns.put((int) rs.getShort("ORDINAL_POSITION"), column);
+            }
+        }
+        return new ArrayList<>(indexes.values());
+    }
+
+    private static class ExistingIndex {
+
+        private final boolean unique;
+        private final Map<Integer, String> columns = new TreeMap<>();
+
+        private ExistingIndex(boolean unique) {
+            this.unique = unique;
+        }
+
+        // Um índice único em mais colunas não garante unicidade nas colunas pedidas, por isso a comparação exata
+        private boolean covers(RequiredIndex required) {
+            List<String> ordered = new ArrayList<>(columns.values());
+            if (required.unique()) {
+                return unique && equalsIgnoreCase(ordered, required.columns());
+            }
+            return ordered.size() >= required.columns().size()
+                    && equalsIgnoreCase(ordered.subList(0, required.columns().size()), required.columns());
+        }
+
+        private static boolean equalsIgnoreCase(List<String> actual, List<String> expected) {
+            if (actual.size() != expected.size()) {
+                return false;
+            }
+            for (int i = 0; i < actual.size(); i++) {
+                if (!actual.get(i).equalsIgnoreCase(expected.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
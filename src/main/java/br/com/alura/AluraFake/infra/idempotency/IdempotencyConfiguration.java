@@ -0,0 +1,41 @@
+package br.com.alura.AluraFake.infra.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class IdempotencyConfiguration {
+
+    static final List<String> IDEMPOTENT_PATHS = List.of("/task/new/*", "/course/new", "/course/*/tasks/bulk");
+
+    @Bean
+    @ConditionalOnProperty(name = "alurafake.idempotency.store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(@Value("${alurafake.idempotency.max-entries:10000}") int maxEntries) {
+        return new InMemoryIdempotencyStore(maxEntries, Clock.systemUTC());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "alurafake.idempotency.store", havingValue = "jdbc")
+    public IdempotencyStore jdbcIdempotencyStore(JdbcTemplate jdbcTemplate) {
+        return new JdbcIdempotencyStore(jdbcTemplate, Clock.systemUTC());
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper,
+                                                                       @Value("${alurafake.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                                                                       @Value("${alurafake.idempotency.in-flight-timeout-seconds:30}") long inFlightTimeoutSeconds,
+                                                                       @Value("${alurafake.idempotency.max-body-bytes:1048576}") int maxBodyBytes) {
+        IdempotencyFilter filter = new IdempotencyFilter(store, IDEMPOTENT_PATHS, Duration.ofMinutes(ttlMinutes),
+                Duration.ofSeconds(inFlightTimeoutSeconds), Clock.systemUTC(), objectMapper, maxBodyBytes);
+        return new FilterRegistrationBean<>(filter);
+    }
+}
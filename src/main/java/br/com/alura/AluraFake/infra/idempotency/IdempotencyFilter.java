@@ -0,0 +1,309 @@
+package br.com.alura.AluraFake.infra.idempotency;
+
+import br.com.alura.AluraFake.util.ErrorItemDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Suporte ao cabeçalho {@code Idempotency-Key} nos POSTs de criação. A primeira execução tem a resposta
+ * gravada; uma repetição com a mesma chave recebe essa resposta sem chegar ao controller. Requisições
+ * simultâneas com a mesma chave aguardam a execução em andamento em vez de executar de novo: na mesma
+ * instância pela execução em memória, entre instâncias pela reserva da chave na {@link IdempotencyStore}.
+ * Quem não vê a resposta gravada em até {@code inFlightTimeout} recebe 409.
+ *
+ * <p>O corpo é guardado em memória para compor a impressão digital, então só são aceitos corpos de até
+ * {@code maxBodyBytes}.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+    static final long STORE_POLL_MILLIS = 50;
+
+    private static final String IN_PROGRESS_MESSAGE = "Requisição com esta chave ainda em processamento, tente novamente";
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final IdempotencyStore store;
+    private final List<String> pathPatterns;
+    private final Duration ttl;
+    private final Duration inFlightTimeout;
+    private final Clock clock;
+    private final ObjectMapper objectMapper;
+    private final int maxBodyBytes;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyFilter(IdempotencyStore store, List<String> pathPatterns, Duration ttl, Duration inFlightTimeout,
+                             Clock clock, ObjectMapper objectMapper, int maxBodyBytes) {
+        this.store = store;
+        this.pathPatterns = pathPatterns;
+        this.ttl = ttl;
+        this.inFlightTimeout = inFlightTimeout;
+        this.clock = clock;
+        this.objectMapper = objectMapper;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return pathPatterns.stream().noneMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH
+                || !StandardCharsets.US_ASCII.newEncoder().canEncode(idempotencyKey)) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres ASCII");
+            return;
+        }
+
+        byte[] body = readBody(request);
+        if (body == null) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Aceito apenas com corpo de até " + maxBodyBytes + " bytes");
+            return;
+        }
+        String key = request.getMethod() + " " + request.getRequestURI() + " " + idempotencyKey;
+        String fingerprint = fingerprint(request, body);
+
+        Optional<StoredResponse> stored = store.find(key);
+        if (stored.isPresent()) {
+            replay(stored.get(), fingerprint, response);
+            return;
+        }
+
+        CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, execution);
+        if (running != null) {
+            awaitAndReplay(running, fingerprint, response);
+            return;
+        }
+
+        boolean claimed = false;
+        try {
+            // Perde a reserva quem chega depois de outra instância, ou depois de uma execução já gravada
+            claimed = store.claim(key, fingerprint, clock.instant().plus(inFlightTimeout));
+            if (!claimed) {
+                stored = awaitStored(key);
+                if (stored.isPresent()) {
+                    execution.complete(stored.get());
+                    replay(stored.get(), fingerprint, response);
+                } else {
+                    execution.completeExceptionally(new TimeoutException("Resposta de outra instância não gravada a tempo"));
+                    writeError(response, HttpStatus.CONFLICT, IN_PROGRESS_MESSAGE);
+                }
+                return;
+            }
+
+            StoredResponse result = execute(new CachedBodyRequest(request, body), response, chain, fingerprint);
+            if (isReplayable(result.status())) {
+                store.save(key, result);
+            } else {
+                store.release(key);
+            }
+            execution.complete(result);
+        } catch (IOException | ServletException | RuntimeException ex) {
+            if (claimed) {
+                store.release(key);
+            }
+            execution.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, execution);
+        }
+    }
+
+    // A execução está em outra instância: consulta a store até a resposta aparecer ou o prazo acabar
+    private Optional<StoredResponse> awaitStored(String key) {
+        long deadline = System.nanoTime() + inFlightTimeout.toNanos();
+        Optional<StoredResponse> stored = store.find(key);
+        while (stored.isEmpty() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(STORE_POLL_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+            stored = store.find(key);
+        }
+        return stored;
+    }
+
+    // Devolve null quando o corpo passa do limite, sem ler além de maxBodyBytes + 1
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > maxBodyBytes) {
+            return null;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        return body.length > maxBodyBytes ? null : body;
+    }
+
+    private StoredResponse execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                                   String fingerprint) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        StoredResponse result = new StoredResponse(fingerprint, wrapper.getStatus(), wrapper.getContentType(),
+                wrapper.getContentAsByteArray(), clock.instant().plus(ttl));
+        wrapper.copyBodyToResponse();
+        return result;
+    }
+
+    // Erros do servidor e recusas por sobrecarga podem dar certo numa nova tentativa: não são gravados
+    private static boolean isReplayable(int status) {
+        return status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private void awaitAndReplay(CompletableFuture<StoredResponse> running, String fingerprint,
+                                HttpServletResponse response) throws IOException {
+        try {
+            StoredResponse result = running.get(inFlightTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (isReplayable(result.status())) {
+                replay(result, fingerprint, response);
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ignored) {
+            // A execução original falhou ou demorou demais; o cliente deve tentar de novo
+        }
+        writeError(response, HttpStatus.CONFLICT, IN_PROGRESS_MESSAGE);
+    }
+
+    private void replay(StoredResponse stored, String fingerprint, HttpServletResponse response) throws IOException {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "Chave já usada com uma requisição diferente");
+            return;
+        }
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.body() != null && stored.body().length > 0) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorItemDTO(HEADER, message));
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 indisponível", ex);
+        }
+    }
+
+    /**
+     * O corpo já foi lido para calcular a impressão digital; o controller recebe uma cópia dele.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // O corpo inteiro já está em memória: os dados estão disponíveis e terminam de imediato
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException ex) {
+                        readListener.onError(ex);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() == null ? StandardCharsets.UTF_8.name() : getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.alura.AluraFake.infra.idempotency;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyStore {
+
+    /**
+     * Retorna a resposta gravada para a chave, desde que ainda não tenha expirado. Uma chave apenas
+     * reservada ainda não tem resposta.
+     */
+    Optional<StoredResponse> find(String key);
+
+    /**
+     * Reserva a chave para uma execução. Só uma chamada ganha a reserva enquanto ela não expirar ou for
+     * liberada, nem quando já existe resposta gravada.
+     *
+     * @return {@code true} se esta chamada reservou a chave e deve executar a requisição
+     */
+    boolean claim(String key, String fingerprint, Instant claimExpiresAt);
+
+    /**
+     * Grava a resposta da primeira execução, substituindo a reserva. Se a chave já tiver resposta, a
+     * gravação anterior prevalece.
+     */
+    void save(String key, StoredResponse response);
+
+    /**
+     * Desfaz a reserva de uma execução que não terá a resposta gravada, para que uma nova tentativa execute.
+     */
+    void release(String key);
+}
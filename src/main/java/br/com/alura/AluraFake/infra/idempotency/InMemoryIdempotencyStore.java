@@ -0,0 +1,67 @@
+package br.com.alura.AluraFake.infra.idempotency;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Armazenamento local, limitado por quantidade (LRU) e por tempo de vida. Não é compartilhado entre
+ * instâncias da aplicação.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, StoredResponse> responses;
+    private final Map<String, Instant> claims = new HashMap<>();
+    private final Clock clock;
+
+    public InMemoryIdempotencyStore(int maxEntries, Clock clock) {
+        this.clock = clock;
+        this.responses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxEntries || eldest.getValue().isExpired(clock.instant());
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<StoredResponse> find(String key) {
+        StoredResponse response = responses.get(key);
+        if (response != null && response.isExpired(clock.instant())) {
+            responses.remove(key);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(response);
+    }
+
+    @Override
+    public synchronized boolean claim(String key, String fingerprint, Instant claimExpiresAt) {
+        if (find(key).isPresent()) {
+            return false;
+        }
+        Instant claimed = claims.get(key);
+        if (claimed != null && claimed.isAfter(clock.instant())) {
+            return false;
+        }
+        claims.put(key, claimExpiresAt);
+        return true;
+    }
+
+    @Override
+    public synchronized void save(String key, StoredResponse response) {
+        claims.remove(key);
+        responses.putIfAbsent(key, response);
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        claims.remove(key);
+    }
+
+    synchronized int size() {
+        return responses.size();
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.alura.AluraFake.infra.idempotency;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Armazenamento na tabela {@code IdempotencyKey}, compartilhado entre instâncias. As chaves expiradas
+ * são ignoradas na leitura e apagadas em lotes pequenos a cada {@value #PURGE_INTERVAL} gravações.
+ *
+ * <p>A reserva é uma linha com {@code status} {@value #PENDING_STATUS}, inserida sob a chave primária: entre
+ * instâncias concorrentes só um INSERT passa. A gravação da resposta atualiza essa mesma linha.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    static final int PURGE_INTERVAL = 100;
+    static final int PENDING_STATUS = 0;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final AtomicLong saves = new AtomicLong();
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        return jdbcTemplate.query("""
+                        SELECT fingerprint, status, content_type, body, expires_at
+                        FROM IdempotencyKey
+                        WHERE idempotency_key = ? AND status <> ? AND expires_at > ?
+                        """,
+                (rs, rowNum) -> new StoredResponse(rs.getString("fingerprint"), rs.getInt("status"),
+                        rs.getString("content_type"), rs.getBytes("body"), rs.getTimestamp("expires_at").toInstant()),
+                key, PENDING_STATUS, Timestamp.from(clock.instant())).stream().findFirst();
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint, Instant claimExpiresAt) {
+        deleteIfExpired(key);
+        return jdbcTemplate.update("""
+                        INSERT IGNORE INTO IdempotencyKey (idempotency_key, fingerprint, status, expires_at)
+                        VALUES (?, ?, ?, ?)
+                        """,
+                key, fingerprint, PENDING_STATUS, Timestamp.from(claimExpiresAt)) == 1;
+    }
+
+    @Override
+    public void save(String key, StoredResponse response) {
+        if (saves.incrementAndGet() % PURGE_INTERVAL == 0) {
+            jdbcTemplate.update("DELETE FROM IdempotencyKey WHERE expires_at <= ? LIMIT 1000", Timestamp.from(clock.instant()));
+        }
+        int completed = jdbcTemplate.update("""
+                        UPDATE IdempotencyKey SET status = ?, content_type = ?, body = ?, expires_at = ?
+                        WHERE idempotency_key = ? AND status = ? AND fingerprint = ?
+                        """,
+                response.status(), response.contentType(), response.body(), Timestamp.from(response.expiresAt()),
+                key, PENDING_STATUS, response.fingerprint());
+        if (completed == 1) {
+            return;
+        }
+
+        // A reserva expirou e foi apagada ou tomada: grava direto, mantendo uma resposta válida que já exista
+        deleteIfExpired(key);
+        jdbcTemplate.update("""
+                        INSERT IGNORE INTO IdempotencyKey (idempotency_key, fingerprint, status, content_type, body, expires_at)
+                        VALUES (?, ?, ?, ?, ?, ?)
+                        """,
+                key, response.fingerprint(), response.status(), response.contentType(), response.body(),
+                Timestamp.from(response.expiresAt()));
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM IdempotencyKey WHERE idempotency_key = ? AND status = ?", key, PENDING_STATUS);
+    }
+
+    // Uma resposta ou reserva expirada ainda não apagada não pode bloquear a chave
+    private void deleteIfExpired(String key) {
+        jdbcTemplate.update("DELETE FROM IdempotencyKey WHERE idempotency_key = ? AND expires_at <= ?",
+                key, Timestamp.from(clock.instant()));
+    }
+}
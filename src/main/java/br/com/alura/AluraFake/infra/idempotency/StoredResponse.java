@@ -0,0 +1,14 @@
+package br.com.alura.AluraFake.infra.idempotency;
+
+import java.time.Instant;
+
+/**
+ * Resposta gravada para uma chave de idempotência. O {@code fingerprint} identifica a requisição original
+ * (método, caminho e corpo), para recusar a mesma chave usada com outro conteúdo.
+ */
+public record StoredResponse(String fingerprint, int status, String contentType, byte[] body, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,188 @@
+package br.com.alura.AluraFake.infra.seed;
+
+import br.com.alura.AluraFake.task.StatementBloomFilter;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Massa de dados para testes de desempenho (perfil perf), no lugar do DataSeeder de exemplo.
+ *
+ * <p>As faixas de IDs são reservadas de uma vez nas tabelas *_SEQ, como o Hibernate faria, e cada lote
+ * é gravado por JDBC na mesma transação que o marca em {@code PerfSeedChunk}. Se a carga for
+ * interrompida, a próxima subida retoma a mesma execução e pula os lotes já concluídos. Todos os
+ * usuários são gravados antes dos cursos, que dependem dos instrutores. Volumes e tamanhos de lote ficam
+ * gravados em {@code PerfSeedRun}: a retomada usa os da carga original, não os da configuração atual.
+ */
+@Component
+public class PerfDataSeeder implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PerfDataSeeder.class);
+
+    static final String USERS = "USER";
+    static final String COURSES = "COURSE";
+
+    private final Environment environment;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SeedChunkWriter writer;
+
+    public PerfDataSeeder(Environment environment, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          EntityManagerFactory entityManagerFactory, StatementBloomFilter statementBloomFilter) {
+        this.environment = environment;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.writer = new SeedChunkWriter(jdbcTemplate, statementBloomFilter);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!environment.matchesProfiles("perf")) return;
+
+        int workers = environment.getProperty("alurafake.seed.workers", Integer.class, 4);
+
+        SeedPlan plan = findUnfinishedRun().orElseGet(this::startRun);
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            runChunks(executor, plan, USERS, plan.users(), plan.userChunkSize());
+            runChunks(executor, plan, COURSES, plan.courses(), plan.courseChunkSize());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        jdbcTemplate.update("UPDATE PerfSeedRun SET finishedAt = CURRENT_TIMESTAMP WHERE id = ?", plan.runId());
+        // As linhas foram gravadas por fora do Hibernate
+        entityManagerFactory.getCache().evictAll();
+        log.info("Carga {} concluída em {} s: {} usuários, {} cursos, {} atividades", plan.runId(),
+                (System.nanoTime() - start) / 1_000_000_000, plan.users(), plan.courses(), plan.tasks());
+    }
+
+    private void runChunks(ExecutorService executor, SeedPlan plan, String kind, int total, int chunkSize)
+            throws InterruptedException, ExecutionException {
+        Set<Integer> done = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT chunk FROM PerfSeedChunk WHERE run_id = ? AND kind = ?", Integer.class, plan.runId(), kind));
+        int chunks = (total + chunkSize - 1) / chunkSize;
+        if (!done.isEmpty()) {
+            log.info("Carga {}: retomando {} com {} de {} lotes já gravados", plan.runId(), kind, done.size(), chunks);
+        }
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            if (done.contains(chunk)) continue;
+            int index = chunk;
+            int from = chunk * chunkSize;
+            int to = Math.min(total, from + chunkSize);
+            futures.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                if (USERS.equals(kind)) {
+                    writer.writeUsers(plan, from, to);
+                } else {
+                    writer.writeCourses(plan, from, to);
+                }
+                jdbcTemplate.update("INSERT INTO PerfSeedChunk (run_id, kind, chunk) VALUES (?, ?, ?)",
+                        plan.runId(), kind, index);
+            })));
+        }
+        // Para no primeiro erro; os lotes já confirmados ficam marcados para a retomada
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private Optional<SeedPlan> findUnfinishedRun() {
+        return jdbcTemplate.query("""
+                        SELECT id, users, courses, tasks_per_course, published_percent,
+                               user_base, course_base, task_base, option_base, user_chunk_size, course_chunk_size
+                        FROM PerfSeedRun
+                        WHERE finishedAt IS NULL
+                        ORDER BY id DESC
+                        LIMIT 1
+                        """,
+                (rs, rowNum) -> new SeedPlan(rs.getLong("id"), rs.getInt("users"), rs.getInt("courses"),
+                        rs.getInt("tasks_per_course"), rs.getInt("published_percent"), rs.getLong("user_base"),
+                        rs.getLong("course_base"), rs.getLong("task_base"), rs.getLong("option_base"),
+                        rs.getInt("user_chunk_size"), rs.getInt("course_chunk_size")))
+                .stream().findFirst();
+    }
+
+    private SeedPlan startRun() {
+        int users = environment.getProperty("alurafake.seed.users", Integer.class, 100_000);
+        int courses = environment.getProperty("alurafake.seed.courses", Integer.class, 50_000);
+        int tasksPerCourse = environment.getProperty("alurafake.seed.tasks-per-course", Integer.class, 100);
+        int publishedPercent = environment.getProperty("alurafake.seed.published-percent", Integer.class, 50);
+        int userChunkSize = environment.getProperty("alurafake.seed.user-chunk-size", Integer.class, 5000);
+        int taskChunkSize = environment.getProperty("alurafake.seed.task-chunk-size", Integer.class, 20000);
+        if (users < 1 || courses < 0 || tasksPerCourse < 0 || publishedPercent < 0 || publishedPercent > 100
+                || userChunkSize < 1 || taskChunkSize < 1) {
+            throw new IllegalStateException("Configuração alurafake.seed.* inválida");
+        }
+
+        int courseChunkSize = Math.max(1, taskChunkSize / Math.max(1, tasksPerCourse));
+        long tasks = (long) courses * tasksPerCourse;
+        return transactionTemplate.execute(status -> {
+            SeedPlan plan = new SeedPlan(0, users, courses, tasksPerCourse, publishedPercent,
+                    reserveIds("User_SEQ", users), reserveIds("Course_SEQ", courses),
+                    reserveIds("Task_SEQ", tasks), reserveIds("Option_SEQ", tasks * SeedPlan.OPTIONS_PER_TASK),
+                    userChunkSize, courseChunkSize);
+
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement("""
+                        INSERT INTO PerfSeedRun (users, courses, tasks_per_course, published_percent,
+                                                 user_base, course_base, task_base, option_base,
+                                                 user_chunk_size, course_chunk_size)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """, Statement.RETURN_GENERATED_KEYS);
+                ps.setInt(1, plan.users());
+                ps.setInt(2, plan.courses());
+                ps.setInt(3, plan.tasksPerCourse());
+                ps.setInt(4, plan.publishedPercent());
+                ps.setLong(5, plan.userBase());
+                ps.setLong(6, plan.courseBase());
+                ps.setLong(7, plan.taskBase());
+                ps.setLong(8, plan.optionBase());
+                ps.setInt(9, plan.userChunkSize());
+                ps.setInt(10, plan.courseChunkSize());
+                return ps;
+            }, keyHolder);
+
+            SeedPlan started = plan.withRunId(keyHolder.getKey().longValue());
+            log.info("Carga {} iniciada: {} usuários, {} cursos, {} atividades", started.runId(), users, courses,
+                    started.tasks());
+            return started;
+        });
+    }
+
+    /**
+     * Avança a tabela de sequência como o otimizador pooled-lo do Hibernate: o valor lido é o primeiro
+     * id da faixa, e as próximas alocações da aplicação começam depois dela.
+     */
+    private long reserveIds(String sequenceTable, long count) {
+        Long first = jdbcTemplate.queryForObject("SELECT next_val FROM " + sequenceTable + " FOR UPDATE", Long.class);
+        jdbcTemplate.update("UPDATE " + sequenceTable + " SET next_val = ?", first + count);
+        return first;
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.alura.AluraFake.infra.seed;
+
+import br.com.alura.AluraFake.task.StatementHash;
+import br.com.alura.AluraFake.task.StatementBloomFilter;
+import br.com.alura.AluraFake.task.Type;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grava um lote do plano com INSERTs em lote; com {@code rewriteBatchedStatements=true} o driver os
+ * envia como INSERTs de várias linhas. Deve ser chamado dentro da transação que registra o lote.
+ */
+class SeedChunkWriter {
+
+    // Mesmo espaçamento de TaskRank.GAP: as ordens 1..N viram ranks N * GAP
+    static final long RANK_GAP = 1L << 32;
+    static final int JDBC_BATCH_SIZE = 1000;
+
+    private static final String SEED_PASSWORD = "perfseed";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatementBloomFilter statementBloomFilter;
+
+    SeedChunkWriter(JdbcTemplate jdbcTemplate, StatementBloomFilter statementBloomFilter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.statementBloomFilter = statementBloomFilter;
+    }
+
+    void writeUsers(SeedPlan plan, int fromIndex, int toIndex) {
+        List<Object[]> users = new ArrayList<>(toIndex - fromIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            String role = plan.isInstructor(i) ? "INSTRUCTOR" : "STUDENT";
+            users.add(new Object[]{plan.userBase() + i, "Usuario " + i,
+                    "seed" + plan.runId() + "-" + i + "@alurafake.dev", role, SEED_PASSWORD});
+        }
+        insert("INSERT INTO User (id, name, email, role, password) VALUES (?, ?, ?, ?, ?)", users);
+    }
+
+    void writeCourses(SeedPlan plan, int fromIndex, int toIndex) {
+        int count = toIndex - fromIndex;
+        int tasksPerCourse = plan.tasksPerCourse();
+        Timestamp publishedAt = Timestamp.from(Instant.now());
+
+        List<Object[]> courses = new ArrayList<>(count);
+        List<Object[]> tasks = new ArrayList<>(count * tasksPerCourse);
+        List<Object[]> options = new ArrayList<>(count * tasksPerCourse * 3);
+
+        for (int c = fromIndex; c < toIndex; c++) {
+            long courseId = plan.courseBase() + c;
+            boolean published = plan.isPublished(c);
+            courses.add(new Object[]{courseId, "Curso " + c + " (carga " + plan.runId() + ")",
+                    "Curso gerado para testes de desempenho", plan.instructorIdOf(c),
+                    published ? "PUBLISHED" : "BUILDING", published ? publishedAt : null,
+                    tasksPerCourse,
+                    plan.countOf(Type.OPEN_TEXT), plan.countOf(Type.SINGLE_CHOICE), plan.countOf(Type.MULTIPLE_CHOICE)});
+
+            for (int order = 1; order <= tasksPerCourse; order++) {
+                long taskId = plan.taskIdOf(c, order);
+                Type type = plan.typeAt(order);
+                // O id da atividade é único na carga e o runId separa cargas distintas
+                String statement = "Atividade " + order + " do curso " + courseId + " (carga " + plan.runId() + ")";
+                String statementHash = StatementHash.of(statement);
+                tasks.add(new Object[]{taskId, statement, statementHash, type.name(), order * RANK_GAP, courseId});
+                statementBloomFilter.put(statementHash);
+                addOptions(plan, options, taskId, type);
+            }
+        }
+
+        insert("""
+                INSERT INTO Course (id, title, description, instructor_id, status, publishedAt, taskCount,
+                                    openTextTaskCount, singleChoiceTaskCount, multipleChoiceTaskCount)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, courses);
+        insert("INSERT INTO Task (id, statement, statement_hash, type, task_rank, course_id) VALUES (?, ?, ?, ?, ?, ?)", tasks);
+        insert("INSERT INTO options_table (id, option_text, isCorrect, task_id) VALUES (?, ?, ?, ?)", options);
+    }
+
+    // Única escolha: três alternativas, uma correta. Múltipla escolha: quatro, duas corretas.
+    private static void addOptions(SeedPlan plan, List<Object[]> options, long taskId, Type type) {
+        int total = switch (type) {
+            case OPEN_TEXT -> 0;
+            case SINGLE_CHOICE -> 3;
+            case MULTIPLE_CHOICE -> 4;
+        };
+        int correct = type == Type.MULTIPLE_CHOICE ? 2 : 1;
+        for (int slot = 0; slot < total; slot++) {
+            options.add(new Object[]{plan.optionIdOf(taskId, slot), "Alternativa " + (slot + 1) + " da atividade " + taskId,
+                    slot < correct, taskId});
+        }
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += JDBC_BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + JDBC_BATCH_SIZE)));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.alura.AluraFake.infra.seed;
+
+import br.com.alura.AluraFake.task.Type;
+
+/**
+ * Volumes, faixas de IDs e tamanhos de lote de uma carga. Tudo que é gravado deriva do plano e da posição
+ * do registro, então refazer um lote produz exatamente as mesmas linhas.
+ */
+record SeedPlan(long runId, int users, int courses, int tasksPerCourse, int publishedPercent,
+                long userBase, long courseBase, long taskBase, long optionBase,
+                int userChunkSize, int courseChunkSize) {
+
+    // Um a cada INSTRUCTOR_EVERY usuários é instrutor
+    static final int INSTRUCTOR_EVERY = 10;
+    // Espaço reservado por atividade: a múltipla escolha tem quatro alternativas
+    static final int OPTIONS_PER_TASK = 4;
+
+    private static final Type[] TYPE_CYCLE = {Type.OPEN_TEXT, Type.SINGLE_CHOICE, Type.MULTIPLE_CHOICE};
+
+    SeedPlan withRunId(long runId) {
+        return new SeedPlan(runId, users, courses, tasksPerCourse, publishedPercent, userBase, courseBase, taskBase,
+                optionBase, userChunkSize, courseChunkSize);
+    }
+
+    long tasks() {
+        return (long) courses * tasksPerCourse;
+    }
+
+    long optionSlots() {
+        return tasks() * OPTIONS_PER_TASK;
+    }
+
+    int instructors() {
+        return (users + INSTRUCTOR_EVERY - 1) / INSTRUCTOR_EVERY;
+    }
+
+    boolean isInstructor(int userIndex) {
+        return userIndex % INSTRUCTOR_EVERY == 0;
+    }
+
+    long instructorIdOf(int courseIndex) {
+        return userBase + (long) (courseIndex % instructors()) * INSTRUCTOR_EVERY;
+    }
+
+    // Publicado só quando há atividades suficientes para cobrir os três tipos
+    boolean isPublished(int courseIndex) {
+        return tasksPerCourse >= TYPE_CYCLE.length && courseIndex % 100 < publishedPercent;
+    }
+
+    /**
+     * Tipo da atividade na ordem {@code order} (1..N): os tipos se alternam, então qualquer curso com
+     * três ou mais atividades tem todos eles.
+     */
+    Type typeAt(int order) {
+        return TYPE_CYCLE[(order - 1) % TYPE_CYCLE.length];
+    }
+
+    int countOf(Type type) {
+        int full = tasksPerCourse / TYPE_CYCLE.length;
+        int index = type == Type.OPEN_TEXT ? 0 : type == Type.SINGLE_CHOICE ? 1 : 2;
+        return full + (index < tasksPerCourse % TYPE_CYCLE.length ? 1 : 0);
+    }
+
+    long taskIdOf(int courseIndex, int order) {
+        return taskBase + (long) courseIndex * tasksPerCourse + (order - 1);
+    }
+
+    long optionIdOf(long taskId, int slot) {
+        return optionBase + (taskId - taskBase) * OPTIONS_PER_TASK + slot;
+    }
+}
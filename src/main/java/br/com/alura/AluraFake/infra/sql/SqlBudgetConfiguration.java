@@ -0,0 +1,23 @@
+package br.com.alura.AluraFake.infra.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class SqlBudgetConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(MeterRegistry meterRegistry,
+                                                                   @Value("${alurafake.sql.budget:20}") int budget,
+                                                                   @Value("${alurafake.sql.repeat-threshold:5}") int repeatThreshold) {
+        FilterRegistrationBean<SqlBudgetFilter> registration =
+                new FilterRegistrationBean<>(new SqlBudgetFilter(meterRegistry, budget, repeatThreshold));
+        // Por fora dos demais filtros, para contar também o SQL do filtro de idempotência
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
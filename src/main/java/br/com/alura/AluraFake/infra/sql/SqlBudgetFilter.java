@@ -0,0 +1,64 @@
+package br.com.alura.AluraFake.infra.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Mede quantos comandos SQL cada requisição executa. Requisições acima do orçamento e comandos repetidos
+ * muitas vezes (provável N+1) são registrados em log e em métricas. Só enxerga o SQL executado na thread
+ * da requisição: o corpo de respostas em streaming fica de fora.
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int budget;
+    private final int repeatThreshold;
+
+    public SqlBudgetFilter(MeterRegistry meterRegistry, int budget, int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.budget = budget;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            chain.doFilter(request, response);
+            report(request, scope);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementCounter.Scope scope) {
+        String uri = routeOf(request);
+        meterRegistry.summary("alurafake.http.sql.statements", "uri", uri).record(scope.getCount());
+
+        if (scope.getCount() > budget) {
+            meterRegistry.counter("alurafake.http.sql.budget.exceeded", "uri", uri).increment();
+            log.warn("{} {} executou {} comandos SQL (orçamento: {})", request.getMethod(), uri, scope.getCount(), budget);
+        }
+
+        scope.findRepeatedStatement(repeatThreshold).ifPresent(repeated -> {
+            meterRegistry.counter("alurafake.http.sql.repeated", "uri", uri).increment();
+            log.warn("Possível N+1 em {} {}: {} execuções de [{}]", request.getMethod(), uri, repeated.getValue(),
+                    repeated.getKey());
+        });
+    }
+
+    // Usa o padrão da rota (/course/{id}/publish) para não criar uma série por ID
+    private static String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNMAPPED";
+    }
+}
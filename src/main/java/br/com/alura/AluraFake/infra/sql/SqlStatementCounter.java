@@ -0,0 +1,77 @@
+package br.com.alura.AluraFake.infra.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Conta os comandos SQL preparados pelo Hibernate na thread atual. Registrado por nome de classe em
+ * {@code hibernate.session_factory.statement_inspector}; o estado fica em escopos por thread, então
+ * qualquer instância criada pelo Hibernate enxerga os mesmos contadores.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Deque<Scope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public String inspect(String sql) {
+        for (Scope scope : SCOPES.get()) {
+            scope.record(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Abre um escopo de contagem na thread atual. Escopos podem ser aninhados: cada comando conta em
+     * todos os escopos abertos.
+     */
+    public static Scope open() {
+        Scope scope = new Scope();
+        SCOPES.get().push(scope);
+        return scope;
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Map<String, Integer> executions = new HashMap<>();
+        private int count;
+
+        private Scope() {}
+
+        private void record(String sql) {
+            count++;
+            executions.merge(sql, 1, Integer::sum);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public Map<String, Integer> getExecutions() {
+            return Collections.unmodifiableMap(executions);
+        }
+
+        /**
+         * O comando repetido mais vezes, quando passa do limite: o sintoma típico de N+1.
+         */
+        public Optional<Map.Entry<String, Integer>> findRepeatedStatement(int threshold) {
+            return executions.entrySet().stream()
+                    .filter(entry -> entry.getValue() >= threshold)
+                    .max(Map.Entry.comparingByValue());
+        }
+
+        @Override
+        public void close() {
+            Deque<Scope> scopes = SCOPES.get();
+            scopes.remove(this);
+            if (scopes.isEmpty()) {
+                SCOPES.remove();
+            }
+        }
+    }
+}
@@ -9,7 +9,8 @@ import org.hibernate.validator.constraints.Length;
 public class Option {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "option_seq")
+    @SequenceGenerator(name = "option_seq", sequenceName = "Option_SEQ", allocationSize = 50)
     private Long id;
 
     @Column(name = "option_text")
@@ -0,0 +1,26 @@
+package br.com.alura.AluraFake.task;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class NewBulkTaskDTO {
+
+    @NotEmpty
+    @Size(max = 1000)
+    @Valid
+    private List<NewBulkTaskItemDTO> tasks = new ArrayList<>();
+
+    public NewBulkTaskDTO() {}
+
+    public List<NewBulkTaskItemDTO> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<NewBulkTaskItemDTO> tasks) {
+        this.tasks = tasks;
+    }
+}
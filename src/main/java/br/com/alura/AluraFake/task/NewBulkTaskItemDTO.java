@@ -0,0 +1,77 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.option.Option;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.validator.constraints.Length;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class NewBulkTaskItemDTO {
+
+    @NotNull
+    private Type type;
+    @NotNull
+    @NotBlank
+    @Length(min = 4, max = 255)
+    private String statement;
+    @NotNull
+    private Integer order;
+
+    @Valid
+    private List<Option> options = new ArrayList<>();
+
+    public NewBulkTaskItemDTO() {}
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getStatement() {
+        return statement;
+    }
+
+    public void setStatement(String statement) {
+        this.statement = statement;
+    }
+
+    public Integer getOrder() {
+        return order;
+    }
+
+    public void setOrder(Integer order) {
+        this.order = order;
+    }
+
+    public List<Option> getOptions() {
+        return options;
+    }
+
+    public void setOptions(List<Option> options) {
+        this.options = options;
+    }
+
+    public static NewBulkTaskItemDTO from(Type type, NewTaskDTO newTaskDTO) {
+        NewBulkTaskItemDTO item = new NewBulkTaskItemDTO();
+        item.setType(type);
+        item.setStatement(newTaskDTO.getStatement());
+        item.setOrder(newTaskDTO.getOrder());
+        item.setOptions(newTaskDTO.getOptions());
+        return item;
+    }
+
+    public NewTaskDTO toNewTaskDTO(Long courseId) {
+        NewTaskDTO newTaskDTO = new NewTaskDTO();
+        newTaskDTO.setCourseId(courseId);
+        newTaskDTO.setStatement(statement);
+        newTaskDTO.setOrder(order);
+        newTaskDTO.setOptions(options);
+        return newTaskDTO;
+    }
+}
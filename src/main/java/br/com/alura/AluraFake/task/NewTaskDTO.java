@@ -50,8 +50,8 @@ public class NewTaskDTO {
         this.courseId = courseId;
     }
 
-    public Task toModel(Type type, Course course){
-        return new Task(statement, type, order, course, options);
+    public Task toModel(Type type, Course course, long rank){
+        return new Task(statement, type, rank, course, options);
     }
 
     public List<Option> getOptions() {
@@ -0,0 +1,148 @@
+package br.com.alura.AluraFake.task;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Filtro de Bloom dos hashes de enunciados já cadastrados. Uma resposta negativa dispensa a consulta
+ * ao banco; uma positiva pode ser falso positivo e precisa ser confirmada no banco.
+ *
+ * <p>Enquanto não é aquecido, responde sempre "talvez". Durante uma reconstrução, os hashes de
+ * transações ainda abertas são copiados para o novo filtro, para que um enunciado inserido em
+ * paralelo à leitura da tabela não fique de fora.
+ */
+@Component
+public class StatementBloomFilter {
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private final Object lock = new Object();
+    private final Map<String, Integer> pending = new HashMap<>();
+    private volatile Bits current;
+    private Bits building;
+
+    public StatementBloomFilter(TaskRepository taskRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${alurafake.statement-filter.expected-insertions:1000000}") long expectedInsertions,
+                                @Value("${alurafake.statement-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.taskRepository = taskRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public boolean mightContain(String statementHash) {
+        Bits bits = current;
+        return bits == null || bits.mightContain(statementHash);
+    }
+
+    public void put(String statementHash) {
+        synchronized (lock) {
+            if (current != null) {
+                current.put(statementHash);
+            }
+            if (building != null) {
+                building.put(statementHash);
+            }
+            trackUntilCompletion(statementHash);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long existing = taskRepository.count();
+        Bits next = new Bits(Math.max(expectedInsertions, existing * 2), falsePositiveRate);
+
+        // Registra o novo filtro antes de abrir a leitura: o que já terminou aparece na leitura,
+        // o que ainda está em andamento está em pending ou chega por put()
+        synchronized (lock) {
+            building = next;
+            pending.keySet().forEach(next::put);
+        }
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> hashes = taskRepository.streamAllStatementHashes()) {
+                    hashes.forEach(next::put);
+                }
+            });
+            synchronized (lock) {
+                current = next;
+            }
+        } finally {
+            synchronized (lock) {
+                building = null;
+            }
+        }
+    }
+
+    private void trackUntilCompletion(String statementHash) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        pending.merge(statementHash, 1, Integer::sum);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (lock) {
+                    pending.computeIfPresent(statementHash, (hash, count) -> count == 1 ? null : count - 1);
+                }
+            }
+        });
+    }
+
+    private static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashFunctions;
+
+        Bits(long expectedInsertions, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+            this.size = words.length() * 64L;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) size / expectedInsertions * Math.log(2)));
+        }
+
+        void put(String statementHash) {
+            long first = Long.parseUnsignedLong(statementHash, 0, 16, 16);
+            long second = Long.parseUnsignedLong(statementHash, 16, 32, 16);
+            for (int i = 0; i < hashFunctions; i++) {
+                long index = Math.floorMod(first + i * second, size);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long value;
+                do {
+                    value = words.get(word);
+                } while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask));
+            }
+        }
+
+        boolean mightContain(String statementHash) {
+            long first = Long.parseUnsignedLong(statementHash, 0, 16, 16);
+            long second = Long.parseUnsignedLong(statementHash, 16, 32, 16);
+            for (int i = 0; i < hashFunctions; i++) {
+                long index = Math.floorMod(first + i * second, size);
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
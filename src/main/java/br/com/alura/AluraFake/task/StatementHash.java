@@ -0,0 +1,26 @@
+package br.com.alura.AluraFake.task;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * SHA-256 (hex, 64 caracteres) do enunciado normalizado. Acompanha a collation case-insensitive
+ * da tabela, em que "Java?" e " java? " já eram considerados o mesmo enunciado.
+ */
+public final class StatementHash {
+
+    private StatementHash() {}
+
+    public static String of(String statement) {
+        String normalized = statement.trim().toLowerCase(Locale.ROOT);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", ex);
+        }
+    }
+}
@@ -13,15 +13,18 @@ import java.util.List;
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "Task_SEQ", allocationSize = 50)
     private long id;
     private LocalDateTime createdAt = LocalDateTime.now();
     private String statement;
+    @Column(name = "statement_hash", length = 64)
+    private String statementHash;
     @Enumerated(EnumType.STRING)
     private Type type;
-    @Column(name = "task_order")
-    private Integer order;
-    @ManyToOne
+    @Column(name = "task_rank")
+    private long rank;
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id")
     private Course course;
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -30,13 +33,17 @@ public class Task {
     @Deprecated
     public Task(){}
 
-    public Task(String statement, Type type, Integer order, Course course, List<Option> options) {
+    public Task(String statement, Type type, long rank, Course course, List<Option> options) {
         Assert.isTrue(course.getStatus().equals(Status.BUILDING), "Curso deve ter status BUILDING");
         this.statement = statement;
+        this.statementHash = StatementHash.of(statement);
         this.type = type;
-        this.order = order;
+        this.rank = rank;
         this.course = course;
         this.options = options;
+        if (options != null) {
+            options.forEach(option -> option.setTask(this));
+        }
     }
 
     public long getId() {
@@ -51,6 +58,10 @@ public class Task {
         return statement;
     }
 
+    public String getStatementHash() {
+        return statementHash;
+    }
+
     public Type getType() {
         return type;
     }
@@ -68,7 +79,7 @@ public class Task {
     }
 
     public void setCourse(Course course){
-        course = course;
+        this.course = course;
     }
 
     public void addOption(Option option) {
@@ -76,11 +87,7 @@ public class Task {
         option.setTask(this);
     }
 
-    public Integer getOrder() {
-        return order;
-    }
-
-    public void setOrder(Integer order) {
-        this.order = order;
+    public long getRank() {
+        return rank;
     }
 }
@@ -1,37 +1,98 @@
 package br.com.alura.AluraFake.task;
 
+import br.com.alura.AluraFake.util.ErrorItemDTO;
+import br.com.alura.AluraFake.util.PessimisticLockRetry;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.List;
+
 @RestController
 public class TaskController {
 
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskQueryService taskQueryService;
+
+    @Autowired
+    private PessimisticLockRetry lockRetry;
+
+    @Autowired(required = false)
+    private TaskIngestionQueue ingestionQueue;
+
 
-    @Transactional
     @PostMapping("/task/new/opentext")
-    public ResponseEntity newOpenTextExercise(@Valid @RequestBody NewTaskDTO newTask) {
-        taskService.createOpenTextTask(newTask);
+    public ResponseEntity newOpenTextExercise(@Valid @RequestBody NewTaskDTO newTask,
+                                              @RequestHeader(name = "Prefer", required = false) String prefer) {
+        if (respondAsync(prefer)) {
+            return enqueue(Type.OPEN_TEXT, newTask);
+        }
+        lockRetry.execute(() -> taskService.createOpenTextTask(newTask));
 
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
     @PostMapping("/task/new/singlechoice")
-    public ResponseEntity newSingleChoice(@Valid @RequestBody NewTaskDTO newTask) {
-        taskService.createSingleChoiceTask(newTask);
+    public ResponseEntity newSingleChoice(@Valid @RequestBody NewTaskDTO newTask,
+                                          @RequestHeader(name = "Prefer", required = false) String prefer) {
+        if (respondAsync(prefer)) {
+            return enqueue(Type.SINGLE_CHOICE, newTask);
+        }
+        lockRetry.execute(() -> taskService.createSingleChoiceTask(newTask));
 
         return ResponseEntity.ok().build();
     }
 
     @PostMapping("/task/new/multiplechoice")
-    public ResponseEntity newMultipleChoice(@Valid @RequestBody NewTaskDTO newTask) {
-        taskService.createMultipleChoiceTask(newTask);
+    public ResponseEntity newMultipleChoice(@Valid @RequestBody NewTaskDTO newTask,
+                                            @RequestHeader(name = "Prefer", required = false) String prefer) {
+        if (respondAsync(prefer)) {
+            return enqueue(Type.MULTIPLE_CHOICE, newTask);
+        }
+        lockRetry.execute(() -> taskService.createMultipleChoiceTask(newTask));
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/course/{id}/tasks/bulk")
+    public ResponseEntity newTasksInBulk(@PathVariable("id") Long courseId, @Valid @RequestBody NewBulkTaskDTO newTasks) {
+        lockRetry.execute(() -> taskService.createTasks(courseId, newTasks.getTasks()));
+
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+
+    @GetMapping("/course/{id}/tasks")
+    public ResponseEntity<List<TaskItemDTO>> listCourseTasks(@PathVariable("id") Long courseId,
+                                                             @RequestParam(name = "fields", required = false) String fields) {
+        return ResponseEntity.ok(taskQueryService.listCourseTasks(courseId, TaskField.parse(fields)));
+    }
+
+    @GetMapping("/task/ticket/{id}")
+    public ResponseEntity<TaskTicket> getTicket(@PathVariable("id") String ticketId) {
+        if (ingestionQueue == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.of(ingestionQueue.findTicket(ticketId));
+    }
+
+    // Modo assíncrono opcional (RFC 7240): só vale quando a fila de ingestão está habilitada
+    private boolean respondAsync(String prefer) {
+        return ingestionQueue != null && prefer != null && prefer.contains("respond-async");
+    }
+
+    private ResponseEntity enqueue(Type type, NewTaskDTO newTask) {
+        return ingestionQueue.submit(type, newTask)
+                .<ResponseEntity>map(ticket -> ResponseEntity.accepted()
+                        .location(URI.create("/task/ticket/" + ticket.getId()))
+                        .body(ticket))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(new ErrorItemDTO("queue", "Fila de criação de atividades cheia, tente novamente")));
+    }
 }
\ No newline at end of file
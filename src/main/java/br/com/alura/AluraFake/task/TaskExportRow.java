@@ -0,0 +1,46 @@
+package br.com.alura.AluraFake.task;
+
+/**
+ * Linha da exportação de um curso: os dados da atividade repetidos em cada alternativa dela. Atividades
+ * de texto livre vêm numa única linha com os campos da alternativa nulos (LEFT JOIN).
+ */
+public class TaskExportRow {
+
+    private Long taskId;
+    private Type type;
+    private String statement;
+    private String optionText;
+    private Boolean optionCorrect;
+
+    public TaskExportRow(Long taskId, Type type, String statement, String optionText, Boolean optionCorrect) {
+        this.taskId = taskId;
+        this.type = type;
+        this.statement = statement;
+        this.optionText = optionText;
+        this.optionCorrect = optionCorrect;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getStatement() {
+        return statement;
+    }
+
+    public boolean hasOption() {
+        return optionText != null;
+    }
+
+    public String getOptionText() {
+        return optionText;
+    }
+
+    public boolean isOptionCorrect() {
+        return Boolean.TRUE.equals(optionCorrect);
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.alura.AluraFake.task;
+
+import jakarta.validation.ValidationException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Campos opcionais da listagem de atividades. {@code id}, {@code order} e {@code type} sempre vêm;
+ * os demais só quando pedidos em {@code fields}, ou todos quando o parâmetro é omitido.
+ */
+public enum TaskField {
+
+    STATEMENT("statement"),
+    OPTIONS("options"),
+    OPTION_TEXT("options.text");
+
+    private final String parameter;
+
+    TaskField(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public static Set<TaskField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(TaskField.class);
+        }
+
+        Set<TaskField> selected = EnumSet.noneOf(TaskField.class);
+        for (String token : fields.split(",")) {
+            String name = token.trim();
+            TaskField field = Arrays.stream(values())
+                    .filter(candidate -> candidate.parameter.equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new ValidationException("fields|Campo desconhecido: " + name));
+            selected.add(field);
+        }
+        // Pedir o texto das alternativas implica trazer as alternativas
+        if (selected.contains(OPTION_TEXT)) {
+            selected.add(OPTIONS);
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,224 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.util.ErrorItemDTO;
+import br.com.alura.AluraFake.util.PessimisticLockRetry;
+import br.com.alura.AluraFake.util.ValidationMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.validation.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fila de gravação assíncrona de atividades. As requisições são validadas e enfileiradas; um único
+ * worker consome a fila em lotes agrupados por curso e grava cada lote com {@link TaskService#createTasks},
+ * que trava o curso e calcula as posições uma vez por lote em vez de uma vez por atividade.
+ *
+ * <p>Os tickets concluídos ficam consultáveis por {@code ticket-retention-minutes}, limitados aos
+ * {@code max-retained-tickets} mais recentes; sob carga contínua, o limite é o que segura a memória.
+ */
+@Component
+@ConditionalOnProperty(name = "alurafake.task-ingestion.enabled", havingValue = "true")
+public class TaskIngestionQueue implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskIngestionQueue.class);
+
+    private final TaskService taskService;
+    private final PessimisticLockRetry lockRetry;
+    private final BlockingQueue<PendingTask> queue;
+    private final int maxBatchSize;
+    private final Duration ticketRetention;
+    private final int maxRetainedTickets;
+    private final Map<String, TaskTicket> tickets = new ConcurrentHashMap<>();
+    // Concluídos na ordem de conclusão; só o worker (ou drain, nos testes) mexe nela
+    private final Queue<TaskTicket> completedTickets = new ArrayDeque<>();
+
+    private volatile MeterRegistry meterRegistry;
+    private volatile boolean running;
+    private Thread worker;
+
+    public TaskIngestionQueue(TaskService taskService, PessimisticLockRetry lockRetry,
+                              @Value("${alurafake.task-ingestion.capacity:10000}") int capacity,
+                              @Value("${alurafake.task-ingestion.max-batch-size:200}") int maxBatchSize,
+                              @Value("${alurafake.task-ingestion.ticket-retention-minutes:60}") long ticketRetentionMinutes,
+                              @Value("${alurafake.task-ingestion.max-retained-tickets:100000}") int maxRetainedTickets) {
+        this.taskService = taskService;
+        this.lockRetry = lockRetry;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.ticketRetention = Duration.ofMinutes(ticketRetentionMinutes);
+        this.maxRetainedTickets = maxRetainedTickets;
+    }
+
+    /**
+     * Valida o que não depende do banco e enfileira a atividade. Retorna vazio quando a fila está cheia.
+     */
+    public Optional<TaskTicket> submit(Type type, NewTaskDTO newTaskDTO) {
+        taskService.validateTaskOptions(type, newTaskDTO);
+
+        TaskTicket ticket = new TaskTicket();
+        tickets.put(ticket.getId(), ticket);
+        if (!queue.offer(new PendingTask(ticket, newTaskDTO.getCourseId(), NewBulkTaskItemDTO.from(type, newTaskDTO)))) {
+            tickets.remove(ticket.getId());
+            return Optional.empty();
+        }
+        return Optional.of(ticket);
+    }
+
+    public Optional<TaskTicket> findTicket(String id) {
+        return Optional.ofNullable(tickets.get(id));
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Processa o que já está na fila, até um lote. Retorna quantas atividades foram consumidas.
+     */
+    int drain() {
+        List<PendingTask> batch = new ArrayList<>(maxBatchSize);
+        queue.drainTo(batch, maxBatchSize);
+        process(batch);
+        return batch.size();
+    }
+
+    private void runWorker() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingTask first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    purgeExpiredTickets();
+                    continue;
+                }
+                List<PendingTask> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                process(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Falha inesperada no worker de ingestão de atividades", ex);
+            }
+        }
+    }
+
+    private void process(List<PendingTask> batch) {
+        Map<Long, List<PendingTask>> byCourse = new LinkedHashMap<>();
+        for (PendingTask pending : batch) {
+            byCourse.computeIfAbsent(pending.courseId(), courseId -> new ArrayList<>()).add(pending);
+        }
+        byCourse.forEach(this::processCourse);
+
+        batch.forEach(pending -> completedTickets.add(pending.ticket()));
+        purgeExpiredTickets();
+    }
+
+    private void processCourse(Long courseId, List<PendingTask> pendingTasks) {
+        if (pendingTasks.size() > 1 && tryCreate(courseId, pendingTasks)) {
+            return;
+        }
+        // Um item inválido não pode derrubar o lote inteiro: reprocessa um a um, na ordem de chegada
+        pendingTasks.forEach(pending -> tryCreate(courseId, List.of(pending)));
+    }
+
+    private boolean tryCreate(Long courseId, List<PendingTask> pendingTasks) {
+        List<NewBulkTaskItemDTO> items = pendingTasks.stream().map(PendingTask::item).toList();
+        try {
+            List<Task> created = lockRetry.execute(() -> taskService.createTasks(courseId, items));
+            for (int i = 0; i < created.size(); i++) {
+                pendingTasks.get(i).ticket().created(created.get(i).getId());
+            }
+            return true;
+        } catch (ValidationException ex) {
+            if (pendingTasks.size() == 1) {
+                ErrorItemDTO error = ErrorItemDTO.fromMessage(stripItemPrefix(ex.getMessage()));
+                pendingTasks.get(0).ticket().rejected(error);
+                countRejection(error.getField());
+            }
+            return false;
+        } catch (RuntimeException ex) {
+            if (pendingTasks.size() == 1) {
+                log.warn("Falha ao gravar atividade do ticket {}", pendingTasks.get(0).ticket().getId(), ex);
+                pendingTasks.get(0).ticket().failed(new ErrorItemDTO("task", "Não foi possível gravar a atividade"));
+            }
+            return false;
+        }
+    }
+
+    private void countRejection(String field) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            registry.counter("alurafake.validation.rejections", "field", ValidationMetrics.normalizeField(field),
+                    "source", "async").increment();
+        }
+    }
+
+    // Com um único item, o prefixo "tasks[0]." da importação em lote não diz nada ao cliente
+    private static String stripItemPrefix(String message) {
+        String prefix = "tasks[0].";
+        return message != null && message.startsWith(prefix) ? message.substring(prefix.length()) : message;
+    }
+
+    // Os mais antigos estão no início da fila: para no primeiro que ainda vale e cabe no limite
+    private void purgeExpiredTickets() {
+        Instant limit = Instant.now().minus(ticketRetention);
+        TaskTicket oldest;
+        while ((oldest = completedTickets.peek()) != null
+                && (completedTickets.size() > maxRetainedTickets || oldest.isCompletedBefore(limit))) {
+            completedTickets.poll();
+            tickets.remove(oldest.getId());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        Gauge.builder("alurafake.task-ingestion.queue.size", queue, BlockingQueue::size).register(registry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("task-ingestion").daemon().start(this::runWorker);
+    }
+
+    @Override
+    public void stop() {
+        // O worker esvazia a fila antes de sair; o que chegar depois do desligamento se perde
+        running = false;
+        try {
+            worker.join(Duration.ofSeconds(30));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record PendingTask(TaskTicket ticket, Long courseId, NewBulkTaskItemDTO item) {
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.alura.AluraFake.task;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskItemDTO {
+
+    private Long id;
+    private Integer order;
+    private Type type;
+    private String statement;
+    private List<TaskOptionItemDTO> options;
+
+    // Usado pela projeção JPQL: a ordem é a posição na lista, já que os ranks gravados são esparsos
+    public TaskItemDTO(Long id, Type type, String statement) {
+        this.id = id;
+        this.type = type;
+        this.statement = statement;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Integer getOrder() {
+        return order;
+    }
+
+    void setOrder(Integer order) {
+        this.order = order;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getStatement() {
+        return statement;
+    }
+
+    void withoutStatement() {
+        this.statement = null;
+    }
+
+    public List<TaskOptionItemDTO> getOptions() {
+        return options;
+    }
+
+    void setOptions(List<TaskOptionItemDTO> options) {
+        this.options = options;
+    }
+}
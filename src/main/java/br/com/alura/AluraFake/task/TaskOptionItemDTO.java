@@ -0,0 +1,40 @@
+package br.com.alura.AluraFake.task;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskOptionItemDTO {
+
+    private Long taskId;
+    private Long id;
+    private String option;
+    private boolean isCorrect;
+
+    // Usado pela projeção JPQL; o taskId só serve para agrupar as alternativas e não é serializado
+    public TaskOptionItemDTO(Long taskId, Long id, String option, boolean isCorrect) {
+        this.taskId = taskId;
+        this.id = id;
+        this.option = option;
+        this.isCorrect = isCorrect;
+    }
+
+    Long taskId() {
+        return taskId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getOption() {
+        return option;
+    }
+
+    void withoutText() {
+        this.option = null;
+    }
+
+    public boolean getIsCorrect() {
+        return isCorrect;
+    }
+}
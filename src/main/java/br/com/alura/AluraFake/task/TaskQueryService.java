@@ -0,0 +1,73 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.course.CourseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class TaskQueryService {
+
+    // Limite de IDs por cláusula IN: cursos muito grandes viram poucas consultas, nunca uma por atividade
+    static final int OPTION_BATCH_SIZE = 1000;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    /**
+     * Lista as atividades do curso na ordem de exibição. As alternativas vêm numa segunda consulta
+     * com {@code task_id IN (...)}, então o número de consultas não cresce com a quantidade de atividades.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskItemDTO> listCourseTasks(Long courseId, Set<TaskField> fields) {
+        List<TaskItemDTO> tasks = taskRepository.findItemsByCourseId(courseId);
+
+        if (tasks.isEmpty() && !courseRepository.existsById(courseId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Curso nao encontrado: " + courseId);
+        }
+
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskItemDTO task = tasks.get(i);
+            task.setOrder(i + 1);
+            if (!fields.contains(TaskField.STATEMENT)) {
+                task.withoutStatement();
+            }
+        }
+
+        if (fields.contains(TaskField.OPTIONS) && !tasks.isEmpty()) {
+            attachOptions(tasks, fields.contains(TaskField.OPTION_TEXT));
+        }
+        return tasks;
+    }
+
+    private void attachOptions(List<TaskItemDTO> tasks, boolean withText) {
+        List<Long> taskIds = tasks.stream().map(TaskItemDTO::getId).toList();
+
+        Map<Long, List<TaskOptionItemDTO>> optionsByTask = new HashMap<>();
+        for (int from = 0; from < taskIds.size(); from += OPTION_BATCH_SIZE) {
+            List<Long> chunk = taskIds.subList(from, Math.min(from + OPTION_BATCH_SIZE, taskIds.size()));
+            optionsByTask.putAll(taskRepository.findOptionItemsByTaskIdIn(chunk).stream()
+                    .collect(Collectors.groupingBy(TaskOptionItemDTO::taskId)));
+        }
+
+        for (TaskItemDTO task : tasks) {
+            List<TaskOptionItemDTO> options = optionsByTask.getOrDefault(task.getId(), new ArrayList<>());
+            if (!withText) {
+                options.forEach(TaskOptionItemDTO::withoutText);
+            }
+            task.setOptions(options);
+        }
+    }
+}
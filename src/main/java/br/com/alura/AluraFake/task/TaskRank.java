@@ -0,0 +1,34 @@
+package br.com.alura.AluraFake.task;
+
+import java.util.OptionalLong;
+
+/**
+ * A posição pública de uma atividade (1..N) é derivada da ordenação pelo rank, que é esparso:
+ * inserir entre duas atividades só precisa de um valor livre entre os ranks vizinhos.
+ */
+final class TaskRank {
+
+    // 2^32: cabem 32 inserções seguidas no mesmo ponto antes de rebalancear, e N * GAP só estoura o long
+    // a partir de 2^31 atividades num curso
+    static final long GAP = 1L << 32;
+
+    private TaskRank() {}
+
+    /**
+     * Rank estritamente entre {@code lower} e {@code upper}; vazio quando não há espaço e o curso
+     * precisa ser rebalanceado. {@code null} representa o início ou o fim do curso.
+     */
+    static OptionalLong between(Long lower, Long upper) {
+        long from = lower == null ? 0 : lower;
+
+        if (upper == null) {
+            return OptionalLong.of(from + GAP);
+        }
+
+        if (upper - from < 2) {
+            return OptionalLong.empty();
+        }
+
+        return OptionalLong.of(from + (upper - from) / 2);
+    }
+}
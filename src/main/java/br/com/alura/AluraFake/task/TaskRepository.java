@@ -1,30 +1,70 @@
 package br.com.alura.AluraFake.task;
 
-import br.com.alura.AluraFake.course.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
-    boolean existsByStatement(String statement);
+    boolean existsByStatementHash(String statementHash);
 
-    boolean existsByOrderAndCourse(Integer order, Course course);
+    @Query("SELECT t.statement FROM Task t WHERE t.statementHash IN :statementHashes")
+    List<String> findStatementsByHashIn(@Param("statementHashes") Collection<String> statementHashes);
 
-    List<Task> findByCourseAndOrderGreaterThanEqualOrderByOrderAsc(Course course, Integer order);
+    // Integer.MIN_VALUE faz o driver do MySQL entregar as linhas em streaming
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT t.statementHash FROM Task t")
+    Stream<String> streamAllStatementHashes();
 
-    @Query("SELECT MAX(t.order) FROM Task t WHERE t.course.id = :courseId")
-    Integer findMaxOrderForCourse(@Param("courseId")Long courseId);
+    @Query("SELECT new br.com.alura.AluraFake.task.TaskItemDTO(t.id, t.type, t.statement) FROM Task t " +
+            "WHERE t.course.id = :courseId ORDER BY t.rank ASC")
+    List<TaskItemDTO> findItemsByCourseId(@Param("courseId") Long courseId);
 
-    @Query("SELECT t.type, COUNT(t) FROM Task t WHERE t.course.id = :courseId GROUP BY t.type")
-    List<Object[]> countTasksByTypeForCourse(Long courseId);
+    @Query("SELECT new br.com.alura.AluraFake.task.TaskOptionItemDTO(o.task.id, o.id, o.option, o.isCorrect) " +
+            "FROM Option o WHERE o.task.id IN :taskIds ORDER BY o.id ASC")
+    List<TaskOptionItemDTO> findOptionItemsByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
 
-    @Query("SELECT t.order FROM Task t WHERE t.course.id = :courseId ORDER BY t.order ASC")
-    List<Integer> findAllOrdersByCourseId(Long courseId);
+    // Uma linha por alternativa (ou uma só, sem alternativa, para texto livre), lida sob demanda do cursor
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT new br.com.alura.AluraFake.task.TaskExportRow(t.id, t.type, t.statement, o.option, o.isCorrect) " +
+            "FROM Task t LEFT JOIN t.options o WHERE t.course.id = :courseId ORDER BY t.rank ASC, o.id ASC")
+    Stream<TaskExportRow> streamExportRowsByCourseId(@Param("courseId") Long courseId);
 
-    @Query("SELECT t.course.id, COUNT(t) FROM Task t WHERE t.course.author.id = :instructorId GROUP BY t.course.id")
-    List<Object[]> countTasksByCourseForInstructor(Long instructorId);
+    @Query("SELECT t.rank FROM Task t WHERE t.course.id = :courseId ORDER BY t.rank ASC")
+    List<Long> findAllRanksByCourseId(@Param("courseId") Long courseId);
+
+    @Query(value = "SELECT task_rank FROM Task WHERE course_id = :courseId ORDER BY task_rank ASC LIMIT 2 OFFSET :offset",
+            nativeQuery = true)
+    List<Long> findRankWindow(@Param("courseId") Long courseId, @Param("offset") int offset);
+
+    // Primeira etapa do rebalanceamento: ranks negativos não colidem com os atuais
+    // Declarar a tabela afetada evita que o SQL nativo invalide todo o cache de segundo nível
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "Task"))
+    @Query(value = """
+            UPDATE Task t
+            JOIN (SELECT id, ROW_NUMBER() OVER (ORDER BY task_rank) AS position FROM Task WHERE course_id = :courseId) ranked
+              ON t.id = ranked.id
+            SET t.task_rank = -ranked.position
+            """, nativeQuery = true)
+    int detachRanks(@Param("courseId") Long courseId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "Task"))
+    @Query(value = "UPDATE Task SET task_rank = -task_rank * :gap WHERE course_id = :courseId AND task_rank < 0",
+            nativeQuery = true)
+    int spreadRanks(@Param("courseId") Long courseId, @Param("gap") long gap);
+
+    @Query(value = "SELECT DENSE_RANK() OVER (ORDER BY task_rank) FROM Task WHERE course_id = :courseId ORDER BY task_rank ASC",
+            nativeQuery = true)
+    List<Long> findAllOrdersByCourseId(@Param("courseId") Long courseId);
 
 }
@@ -0,0 +1,159 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.option.Option;
+import br.com.alura.AluraFake.util.ErrorItemDTO;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Regras de alternativas de cada tipo de atividade. Os conjuntos são montados uma vez e reaproveitados;
+ * a validação percorre as alternativas uma única vez, aplica todas as regras e devolve todos os erros,
+ * sem lançar exceção. A comparação de títulos trabalha sobre os próprios textos, sem criar cópias com
+ * {@code trim()} ou {@code toLowerCase()}.
+ */
+final class TaskRuleSet {
+
+    @FunctionalInterface
+    interface Rule {
+        /**
+         * @return o erro, ou {@code null} quando a regra é atendida
+         */
+        ErrorItemDTO check(OptionSummary summary);
+    }
+
+    static final ErrorItemDTO MISSING_OPTIONS = new ErrorItemDTO("options", "O corpo da requisição não contém opções.");
+    static final ErrorItemDTO MISSING_TEXT = new ErrorItemDTO("option", "A alternativa deve ter um texto");
+    static final ErrorItemDTO SAME_AS_STATEMENT = new ErrorItemDTO("option", "A alternativa não pode ter o mesmo título do enunciado");
+    static final ErrorItemDTO DUPLICATE_TITLES = new ErrorItemDTO("options", "As alternativas não podem possuir o mesmo título");
+
+    private static final Map<Type, TaskRuleSet> RULE_SETS = new EnumMap<>(Type.class);
+
+    static {
+        RULE_SETS.put(Type.OPEN_TEXT, new TaskRuleSet(false, List.of()));
+        RULE_SETS.put(Type.SINGLE_CHOICE, new TaskRuleSet(true, List.of(
+                optionCountBetween(2, 5),
+                OptionRules.TEXT_REQUIRED,
+                OptionRules.NOT_SAME_AS_STATEMENT,
+                OptionRules.UNIQUE_TITLES,
+                summary -> summary.correct() != 1
+                        ? new ErrorItemDTO("options", "Deve conter apenas uma alternativa correta") : null)));
+        RULE_SETS.put(Type.MULTIPLE_CHOICE, new TaskRuleSet(true, List.of(
+                optionCountBetween(3, 5),
+                OptionRules.TEXT_REQUIRED,
+                OptionRules.NOT_SAME_AS_STATEMENT,
+                OptionRules.UNIQUE_TITLES,
+                summary -> summary.correct() < 2
+                        ? new ErrorItemDTO("options", "Deve conter pelo menos duas alternativas corretas.") : null,
+                summary -> summary.total() - summary.correct() < 1
+                        ? new ErrorItemDTO("options", "Deve conter pelo menos uma alternativa incorreta.") : null)));
+    }
+
+    private final boolean requiresOptions;
+    private final List<Rule> rules;
+
+    private TaskRuleSet(boolean requiresOptions, List<Rule> rules) {
+        this.requiresOptions = requiresOptions;
+        this.rules = rules;
+    }
+
+    static TaskRuleSet forType(Type type) {
+        return RULE_SETS.get(type);
+    }
+
+    List<ErrorItemDTO> validate(NewTaskDTO newTaskDTO) {
+        if (!requiresOptions) {
+            return List.of();
+        }
+        List<Option> options = newTaskDTO.getOptions();
+        if (options == null) {
+            return List.of(MISSING_OPTIONS);
+        }
+
+        OptionSummary summary = OptionSummary.of(newTaskDTO.getStatement(), options);
+        List<ErrorItemDTO> errors = null;
+        for (Rule rule : rules) {
+            ErrorItemDTO error = rule.check(summary);
+            if (error != null) {
+                if (errors == null) {
+                    errors = new ArrayList<>(rules.size());
+                }
+                errors.add(error);
+            }
+        }
+        return errors == null ? List.of() : errors;
+    }
+
+    private static Rule optionCountBetween(int min, int max) {
+        ErrorItemDTO error = new ErrorItemDTO("options", "Deve ter entre " + min + " e " + max + " alternativas");
+        return summary -> summary.total() < min || summary.total() > max ? error : null;
+    }
+
+    private static final class OptionRules {
+        static final Rule TEXT_REQUIRED = summary -> summary.missingText() ? MISSING_TEXT : null;
+        static final Rule NOT_SAME_AS_STATEMENT = summary -> summary.sameAsStatement() ? SAME_AS_STATEMENT : null;
+        static final Rule UNIQUE_TITLES = summary -> summary.duplicateTitles() ? DUPLICATE_TITLES : null;
+    }
+
+    /**
+     * O que as regras precisam saber das alternativas, levantado numa só passada.
+     */
+    record OptionSummary(int total, int correct, boolean missingText, boolean sameAsStatement, boolean duplicateTitles) {
+
+        static OptionSummary of(String statement, List<Option> options) {
+            int total = options.size();
+            int correct = 0;
+            boolean missingText = false;
+            boolean sameAsStatement = false;
+            boolean duplicateTitles = false;
+
+            for (int i = 0; i < total; i++) {
+                Option option = options.get(i);
+                if (option.getIsCorrect()) {
+                    correct++;
+                }
+                String text = option.getOption();
+                if (text == null) {
+                    missingText = true;
+                    continue;
+                }
+                int start = trimStart(text);
+                int length = trimEnd(text, start) - start;
+
+                if (!sameAsStatement && statement != null && statement.length() == length
+                        && text.regionMatches(start, statement, 0, length)) {
+                    sameAsStatement = true;
+                }
+                // Poucas alternativas (no máximo cinco): comparar par a par sai mais barato que um Set de cópias
+                for (int j = 0; j < i && !duplicateTitles; j++) {
+                    String other = options.get(j).getOption();
+                    if (other != null) {
+                        int otherStart = trimStart(other);
+                        duplicateTitles = trimEnd(other, otherStart) - otherStart == length
+                                && text.regionMatches(true, start, other, otherStart, length);
+                    }
+                }
+            }
+            return new OptionSummary(total, correct, missingText, sameAsStatement, duplicateTitles);
+        }
+
+        // Mesmo critério de String.trim(): descarta caracteres até o espaço
+        private static int trimStart(String text) {
+            int start = 0;
+            while (start < text.length() && text.charAt(start) <= ' ') {
+                start++;
+            }
+            return start;
+        }
+
+        private static int trimEnd(String text, int start) {
+            int end = text.length();
+            while (end > start && text.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            return end;
+        }
+    }
+}
@@ -2,146 +2,266 @@ package br.com.alura.AluraFake.task;
 
 import br.com.alura.AluraFake.course.Course;
 import br.com.alura.AluraFake.course.CourseRepository;
-import br.com.alura.AluraFake.option.Option;
+import br.com.alura.AluraFake.course.InstructorReportCache;
+import br.com.alura.AluraFake.course.Status;
+import br.com.alura.AluraFake.util.ErrorItemDTO;
+import br.com.alura.AluraFake.util.ValidationErrorsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ValidationException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.OptionalLong;
 import java.util.Set;
 
 @Service
 public class TaskService {
 
+    private static final String STATEMENT_HASH_CONSTRAINT = "UC_Task_StatementHash";
+
     @Autowired
     private CourseRepository courseRepository;
 
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private StatementBloomFilter statementFilter;
+
+    @Autowired
+    private InstructorReportCache reportCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Transactional
     public Task createOpenTextTask(NewTaskDTO newTaskDTO) {
-        validateBaseTask(newTaskDTO);
+        return meterRegistry.timer("alurafake.task.create", "type", Type.OPEN_TEXT.name()).record(() -> {
+            validateBaseTask(newTaskDTO);
 
-        return saveTask(newTaskDTO, Type.OPEN_TEXT);
+            return saveTask(newTaskDTO, Type.OPEN_TEXT);
+        });
     }
 
     @Transactional
     public Task createSingleChoiceTask(NewTaskDTO newTaskDTO) {
-        validateBaseTask(newTaskDTO);
-        validateSingleChoiceOptions(newTaskDTO);
+        return meterRegistry.timer("alurafake.task.create", "type", Type.SINGLE_CHOICE.name()).record(() -> {
+            validateBaseTask(newTaskDTO);
+            validateTaskOptions(Type.SINGLE_CHOICE, newTaskDTO);
 
-        return saveTask(newTaskDTO, Type.SINGLE_CHOICE);
+            return saveTask(newTaskDTO, Type.SINGLE_CHOICE);
+        });
     }
 
     @Transactional
     public Task createMultipleChoiceTask(NewTaskDTO newTaskDTO) {
-        validateBaseTask(newTaskDTO);
-        validateMultipleChoiceOptions(newTaskDTO);
+        return meterRegistry.timer("alurafake.task.create", "type", Type.MULTIPLE_CHOICE.name()).record(() -> {
+            validateBaseTask(newTaskDTO);
+            validateTaskOptions(Type.MULTIPLE_CHOICE, newTaskDTO);
 
-        return saveTask(newTaskDTO, Type.MULTIPLE_CHOICE);
+            return saveTask(newTaskDTO, Type.MULTIPLE_CHOICE);
+        });
     }
 
-    private void validateSingleChoiceOptions(NewTaskDTO newTaskDTO) {
-        List<Option> options = newTaskDTO.getOptions();
+    @Transactional
+    public List<Task> createTasks(Long courseId, List<NewBulkTaskItemDTO> items) {
+        return meterRegistry.timer("alurafake.task.bulk.create").record(() -> insertTasks(courseId, items));
+    }
 
-        if (options == null) {
-            throw new ValidationException("options|O corpo da requisição não contém opções.");
-        }
+    private List<Task> insertTasks(Long courseId, List<NewBulkTaskItemDTO> items) {
+        Course course = courseRepository.findByIdForUpdate(courseId)
+                .orElseThrow(()-> new ValidationException("courseId|Não foi encontrado curso com este ID"));
 
-        if (options.size() < 2 || options.size() > 5){
-            throw new ValidationException("options|Deve ter entre 2 e 5 alternativas");
+        if (!course.getStatus().equals(Status.BUILDING)) {
+            throw new ValidationException("status|Curso deve ter status BUILDING");
         }
 
-        int correctCount = validateOptions(newTaskDTO);
+        List<NewTaskDTO> newTasks = new ArrayList<>(items.size());
+        Set<String> statementHashes = new HashSet<>();
+        List<ErrorItemDTO> errors = new ArrayList<>();
 
-        if (correctCount != 1){
-            throw new ValidationException("options|Deve conter apenas uma alternativa correta");
-        }
-    }
+        // Valida todos os itens antes de falhar, para o cliente corrigir o lote numa única tentativa
+        for (int i = 0; i < items.size(); i++) {
+            NewBulkTaskItemDTO item = items.get(i);
+            NewTaskDTO newTaskDTO = item.toNewTaskDTO(courseId);
+            String prefix = "tasks[" + i + "].";
 
-    private void validateMultipleChoiceOptions(NewTaskDTO newTaskDTO) {
-        List<Option> options = newTaskDTO.getOptions();
+            for (ErrorItemDTO error : TaskRuleSet.forType(item.getType()).validate(newTaskDTO)) {
+                errors.add(new ErrorItemDTO(prefix + error.getField(), error.getMessage()));
+            }
+            if (!statementHashes.add(StatementHash.of(newTaskDTO.getStatement()))) {
+                errors.add(new ErrorItemDTO(prefix + "statement", "Enunciado repetido na importação"));
+            }
+            newTasks.add(newTaskDTO);
+        }
+        if (!errors.isEmpty()) {
+            throw new ValidationErrorsException(errors);
+        }
 
-        if (options.size() < 3 || options.size() > 5){
-            throw new ValidationException("options|Deve ter entre 3 e 5 alternativas");
+        List<String> existingStatements = statementHashes.stream().anyMatch(statementFilter::mightContain)
+                ? taskRepository.findStatementsByHashIn(statementHashes)
+                : List.of();
+        if (!existingStatements.isEmpty()) {
+            throw new ValidationException("statement|Ja existe uma atividade com este titulo: " + existingStatements.get(0));
         }
 
-        int correctCount = validateOptions(newTaskDTO);
-        int incorrectCount = options.size() - correctCount;
+        // Posição i da lista corresponde à ordem pública i + 1
+        List<Long> ranks = new ArrayList<>(taskRepository.findAllRanksByCourseId(courseId));
 
-        if (correctCount < 2){
-            throw new ValidationException("options|Deve conter pelo menos duas alternativas corretas.");
+        for (int i = 0; i < newTasks.size(); i++) {
+            try {
+                validateOrderContinuity(course.getTaskCount() + i, newTasks.get(i).getOrder());
+            } catch (ValidationException ex) {
+                throw new ValidationException("tasks[" + i + "]." + ex.getMessage());
+            }
         }
 
-        if (incorrectCount < 1){
-            throw new ValidationException("options|Deve conter pelo menos uma alternativa incorreta.");
-        }
-    }
+        List<Task> createdTasks = new ArrayList<>(newTasks.size());
+        int rowsShifted = 0;
+
+        for (int i = 0; i < newTasks.size(); i++) {
+            NewTaskDTO newTaskDTO = newTasks.get(i);
+            int order = newTaskDTO.getOrder();
+
+            OptionalLong rank = rankAt(ranks, order);
+            if (rank.isEmpty()) {
+                taskRepository.saveAll(createdTasks);
+                flushRejectingDuplicateStatement();
+                rowsShifted += rebalanceRanks(courseId);
+                // A redistribuição é feita por SQL nativo: recarrega as atividades já criadas para que não
+                // sigam com o rank antigo em memória
+                createdTasks.forEach(entityManager::refresh);
+                ranks = new ArrayList<>(taskRepository.findAllRanksByCourseId(courseId));
+                rank = rankAt(ranks, order);
+            }
 
-    private int validateOptions(NewTaskDTO newTaskDTO) {
-        Set<String> uniqueTitles = new HashSet<>();
-        int correctCount = 0;
+            ranks.add(order - 1, rank.getAsLong());
+            createdTasks.add(newTaskDTO.toModel(items.get(i).getType(), course, rank.getAsLong()));
+            course.registerTask(items.get(i).getType());
+        }
 
-        for(Option option : newTaskDTO.getOptions()){
-            String title = option.getOption().trim();
-            String lowerCaseTitle = title.toLowerCase();
+        statementHashes.forEach(statementFilter::put);
+        reportCache.evict(course.getInstructor().getId());
+        recordRowsShifted(rowsShifted);
 
-            if(title.equals(newTaskDTO.getStatement())){
-                throw new ValidationException("option|A alternativa não pode ter o mesmo título do enunciado");
-            }
+        List<Task> savedTasks = taskRepository.saveAll(createdTasks);
+        flushRejectingDuplicateStatement();
+        return savedTasks;
+    }
 
-            if (uniqueTitles.contains(lowerCaseTitle)){
-                throw new ValidationException("options|As alternativas não podem possuir o mesmo título");
-            }
-            uniqueTitles.add(lowerCaseTitle);
+    private OptionalLong rankAt(List<Long> ranks, int order) {
+        Long lower = order > 1 ? ranks.get(order - 2) : null;
+        Long upper = order <= ranks.size() ? ranks.get(order - 1) : null;
+        return TaskRank.between(lower, upper);
+    }
 
-            if (option.getIsCorrect()){
-                correctCount ++;
-            }
+    void validateTaskOptions(Type type, NewTaskDTO newTaskDTO) {
+        List<ErrorItemDTO> errors = TaskRuleSet.forType(type).validate(newTaskDTO);
+        if (!errors.isEmpty()) {
+            throw new ValidationErrorsException(errors);
         }
-        return correctCount;
     }
 
     private Task saveTask(NewTaskDTO newTaskDTO, Type type){
+        return meterRegistry.timer("alurafake.task.save").record(() -> persistTask(newTaskDTO, type));
+    }
+
+    private Task persistTask(NewTaskDTO newTaskDTO, Type type){
 
-        Course course = courseRepository.findById(newTaskDTO.getCourseId())
+        Course course = courseRepository.findByIdForUpdate(newTaskDTO.getCourseId())
                 .orElseThrow(()-> new ValidationException("courseId|Não foi encontrado curso com este ID"));
 
-        validateOrderContinuity(course, newTaskDTO.getOrder());
+        validateOrderContinuity(course.getTaskCount(), newTaskDTO.getOrder());
 
-        this.incrementExistingOrders(course, newTaskDTO.getOrder());
+        long rank = allocateRank(course.getId(), newTaskDTO.getOrder());
 
-        Task newTask = newTaskDTO.toModel(type, course);
+        Task newTask = newTaskDTO.toModel(type, course, rank);
+        course.registerTask(type);
+        statementFilter.put(newTask.getStatementHash());
+        reportCache.evict(course.getInstructor().getId());
 
-        course.addTask(newTask);
+        Task savedTask = taskRepository.save(newTask);
+        flushRejectingDuplicateStatement();
+        return savedTask;
+    }
 
-        return taskRepository.save(newTask);
+    /**
+     * O filtro de enunciados só evita a consulta ao banco; quem garante a unicidade entre instâncias é a
+     * UC_Task_StatementHash. O flush traz a violação para dentro do serviço, onde vira erro de validação.
+     */
+    private void flushRejectingDuplicateStatement() {
+        try {
+            taskRepository.flush();
+        } catch (DataIntegrityViolationException ex) {
+            if (ex.getCause() instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().contains(STATEMENT_HASH_CONSTRAINT)) {
+                throw new ValidationException("statement|Ja existe uma atividade com este titulo");
+            }
+            throw ex;
+        }
     }
 
     private void validateBaseTask(NewTaskDTO newTaskDTO) {
-        if (taskRepository.existsByStatement(newTaskDTO.getStatement())){
+        String statementHash = StatementHash.of(newTaskDTO.getStatement());
+
+        if (statementFilter.mightContain(statementHash) && taskRepository.existsByStatementHash(statementHash)){
             throw new ValidationException("statement|Ja existe uma atividade com este titulo");
         }
     }
 
-    private void incrementExistingOrders(Course course, Integer order){
-        List<Task> tasksToUpdate = taskRepository.findByCourseAndOrderGreaterThanEqualOrderByOrderAsc(course, order);
+    private long allocateRank(Long courseId, int order) {
+        return meterRegistry.timer("alurafake.task.rank.allocate").record(() -> {
+            OptionalLong rank = rankBetweenNeighbours(courseId, order);
+            int rowsShifted = 0;
 
-        if(!tasksToUpdate.isEmpty()){
-            for(Task task : tasksToUpdate){
-                task.setOrder(task.getOrder() + 1);
+            if (rank.isEmpty()) {
+                rowsShifted = rebalanceRanks(courseId);
+                rank = rankBetweenNeighbours(courseId, order);
             }
-        }
-        taskRepository.saveAll(tasksToUpdate);
+            recordRowsShifted(rowsShifted);
+            return rank.getAsLong();
+        });
+    }
+
+    private OptionalLong rankBetweenNeighbours(Long courseId, int order) {
+        List<Long> window = taskRepository.findRankWindow(courseId, Math.max(order - 2, 0));
+
+        Long lower = order > 1 ? window.get(0) : null;
+        int upperIndex = order > 1 ? 1 : 0;
+        Long upper = window.size() > upperIndex ? window.get(upperIndex) : null;
+
+        return TaskRank.between(lower, upper);
     }
 
-    private void validateOrderContinuity(Course course, Integer desiredOrder) {
-        Integer maxOrder = taskRepository.findMaxOrderForCourse(course.getId());
+    private int rebalanceRanks(Long courseId) {
+        return meterRegistry.timer("alurafake.task.rank.rebalance").record(() -> {
+            int rows = taskRepository.detachRanks(courseId);
+            taskRepository.spreadRanks(courseId, TaskRank.GAP);
+            return rows;
+        });
+    }
+
+    private void recordRowsShifted(int rows) {
+        meterRegistry.summary("alurafake.task.rows.shifted").record(rows);
+    }
+
+    private void validateOrderContinuity(long taskCount, Integer desiredOrder) {
+        if (desiredOrder < 1) {
+            throw new ValidationException("order|A ordem deve ser um número inteiro positivo");
+        }
 
-        if (maxOrder == null) {
+        if (taskCount == 0) {
             if (desiredOrder != 1) {
                 throw new ValidationException(
                         "order|A primeira atividade deve ter ordem 1, mas foi solicitada a ordem " + desiredOrder
@@ -150,7 +270,7 @@ public class TaskService {
             return;
         }
 
-        Integer nextExpectedOrder = maxOrder + 1;
+        long nextExpectedOrder = taskCount + 1;
 
         if (desiredOrder > nextExpectedOrder) {
             throw new ValidationException(
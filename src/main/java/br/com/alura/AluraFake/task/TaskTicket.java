@@ -0,0 +1,75 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.util.ErrorItemDTO;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Acompanha uma atividade enfileirada no modo assíncrono, do recebimento até a gravação ou rejeição.
+ */
+public class TaskTicket {
+
+    public enum Status {
+        QUEUED,
+        CREATED,
+        REJECTED,
+        FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Instant queuedAt = Instant.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile Long taskId;
+    private volatile ErrorItemDTO error;
+    private volatile Instant completedAt;
+
+    void created(long taskId) {
+        this.taskId = taskId;
+        complete(Status.CREATED);
+    }
+
+    void rejected(ErrorItemDTO error) {
+        this.error = error;
+        complete(Status.REJECTED);
+    }
+
+    void failed(ErrorItemDTO error) {
+        this.error = error;
+        complete(Status.FAILED);
+    }
+
+    private void complete(Status status) {
+        this.completedAt = Instant.now();
+        this.status = status;
+    }
+
+    boolean isCompletedBefore(Instant instant) {
+        Instant completed = completedAt;
+        return completed != null && completed.isBefore(instant);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public ErrorItemDTO getError() {
+        return error;
+    }
+
+    public Instant getQueuedAt() {
+        return queuedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.alura.AluraFake.user;
+
+public class BulkUserErrorDTO {
+
+    private final int index;
+    private final String field;
+    private final String message;
+
+    public BulkUserErrorDTO(int index, String field, String message) {
+        this.index = index;
+        this.field = field;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.alura.AluraFake.user;
+
+import java.util.List;
+
+public class BulkUserResultDTO {
+
+    private final int created;
+    private final List<BulkUserErrorDTO> errors;
+
+    public BulkUserResultDTO(int created, List<BulkUserErrorDTO> errors) {
+        this.created = created;
+        this.errors = errors;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public List<BulkUserErrorDTO> getErrors() {
+        return errors;
+    }
+}
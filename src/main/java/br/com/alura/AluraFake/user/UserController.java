@@ -2,9 +2,11 @@ package br.com.alura.AluraFake.user;
 
 import br.com.alura.AluraFake.util.ErrorItemDTO;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -12,9 +14,14 @@ import java.util.List;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final UserService userService;
+    private final int bulkMaxSize;
 
-    public UserController(UserRepository userRepository) {
+    public UserController(UserRepository userRepository, UserService userService,
+                          @Value("${alurafake.user.bulk.max-size:10000}") int bulkMaxSize) {
         this.userRepository = userRepository;
+        this.userService = userService;
+        this.bulkMaxSize = bulkMaxSize;
     }
 
     @Transactional
@@ -29,9 +36,30 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    // Sem @Valid: cada linha é validada pelo serviço, que devolve os erros pela posição
+    @PostMapping("/user/bulk")
+    public ResponseEntity newStudents(@RequestBody List<NewUserDTO> newUsers) {
+        if (newUsers.isEmpty() || newUsers.size() > bulkMaxSize) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorItemDTO("users", "Envie de 1 a " + bulkMaxSize + " usuários por requisição"));
+        }
+        BulkUserResultDTO result = userService.createUsers(newUsers);
+        HttpStatus status = result.getCreated() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(result);
+    }
+
     @GetMapping("/user/all")
-    public List<UserListItemDTO> listAllUsers() {
-        return userRepository.findAll().stream().map(UserListItemDTO::new).toList();
+    public ResponseEntity<StreamingResponseBody> listAllUsers(@RequestParam(name = "role", required = false) Role role,
+                                                              @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(type -> type.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON))) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(out -> userService.writeUsersAsNdjson(role, out));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> userService.writeUsersAsJsonArray(role, out));
     }
 
 }
@@ -8,10 +8,14 @@ public class UserListItemDTO implements Serializable {
     private String email;
     private Role role;
 
+    public UserListItemDTO(String name, String email, Role role) {
+        this.name = name;
+        this.email = email;
+        this.role = role;
+    }
+
     public UserListItemDTO(User user) {
-        this.name = user.getName();
-        this.email = user.getEmail();
-        this.role = user.getRole();
+        this(user.getName(), user.getEmail(), user.getRole());
     }
 
     public String getName() {
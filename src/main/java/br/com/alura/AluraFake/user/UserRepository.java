@@ -1,13 +1,35 @@
 package br.com.alura.AluraFake.user;
 
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findEmailsIn(@Param("emails") Collection<String> emails);
+
+    // Consulta recorrente na criação de cursos; invalidada automaticamente a cada escrita na tabela User
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
+
+    // Projeção direta no DTO (nada entra no contexto de persistência) e linhas em streaming pelo driver
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT new br.com.alura.AluraFake.user.UserListItemDTO(u.name, u.email, u.role) FROM User u ORDER BY u.id")
+    Stream<UserListItemDTO> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT new br.com.alura.AluraFake.user.UserListItemDTO(u.name, u.email, u.role) FROM User u WHERE u.role = :role ORDER BY u.id")
+    Stream<UserListItemDTO> streamAllByRole(@Param("role") Role role);
 }
@@ -0,0 +1,178 @@
+package br.com.alura.AluraFake.user;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ValidationException;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Service
+public class UserService {
+
+    static final int FLUSH_INTERVAL = 500;
+    static final int EMAIL_LOOKUP_CHUNK_SIZE = 1000;
+    static final int INSERT_BATCH_SIZE = 500;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Cadastra vários usuários de uma vez. Cada linha é validada isoladamente e as que falham, ou cujo
+     * email já existe ou se repete na requisição, voltam em {@code errors} pela posição; as demais são
+     * criadas. Os emails são conferidos com consultas {@code IN} de até {@value #EMAIL_LOOKUP_CHUNK_SIZE}
+     * valores e os INSERTs saem em lotes JDBC de {@value #INSERT_BATCH_SIZE}.
+     */
+    @Transactional
+    public BulkUserResultDTO createUsers(List<NewUserDTO> newUsers) {
+        List<BulkUserErrorDTO> errors = new ArrayList<>();
+        // A collation da tabela não diferencia maiúsculas, então a chave é o email em minúsculas
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+
+        for (int i = 0; i < newUsers.size(); i++) {
+            NewUserDTO newUser = newUsers.get(i);
+            if (newUser == null) {
+                errors.add(new BulkUserErrorDTO(i, "user", "Usuário não informado"));
+                continue;
+            }
+            int index = i;
+            Set<ConstraintViolation<NewUserDTO>> violations = validator.validate(newUser);
+            if (!violations.isEmpty()) {
+                violations.forEach(violation -> errors.add(
+                        new BulkUserErrorDTO(index, violation.getPropertyPath().toString(), violation.getMessage())));
+                continue;
+            }
+            if (candidates.putIfAbsent(emailKey(newUser.getEmail()), i) != null) {
+                errors.add(new BulkUserErrorDTO(i, "email", "Email repetido na requisição"));
+            }
+        }
+
+        Set<String> existing = findExistingEmails(new ArrayList<>(candidates.keySet()));
+        List<User> batch = new ArrayList<>(Math.min(candidates.size(), INSERT_BATCH_SIZE));
+        entityManager.unwrap(Session.class).setJdbcBatchSize(INSERT_BATCH_SIZE);
+        int created = 0;
+
+        for (Map.Entry<String, Integer> candidate : candidates.entrySet()) {
+            if (existing.contains(candidate.getKey())) {
+                errors.add(new BulkUserErrorDTO(candidate.getValue(), "email", "Email já cadastrado no sistema"));
+                continue;
+            }
+            batch.add(newUsers.get(candidate.getValue()).toModel());
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                created += insertBatch(batch);
+            }
+        }
+        if (!batch.isEmpty()) {
+            created += insertBatch(batch);
+        }
+
+        errors.sort(Comparator.comparingInt(BulkUserErrorDTO::getIndex));
+        return new BulkUserResultDTO(created, errors);
+    }
+
+    private Set<String> findExistingEmails(List<String> emails) {
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < emails.size(); from += EMAIL_LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = emails.subList(from, Math.min(emails.size(), from + EMAIL_LOOKUP_CHUNK_SIZE));
+            userRepository.findEmailsIn(chunk).forEach(email -> existing.add(emailKey(email)));
+        }
+        return existing;
+    }
+
+    // Descarrega e limpa o contexto a cada lote, para não acumular entidades
+    private int insertBatch(List<User> batch) {
+        try {
+            userRepository.saveAll(batch);
+            userRepository.flush();
+        } catch (DataIntegrityViolationException ex) {
+            // Outro cadastro gravou um dos emails depois da consulta; a requisição inteira é desfeita
+            throw new ValidationException("email|Email cadastrado em paralelo por outra requisição, envie novamente");
+        }
+        entityManager.clear();
+
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Escreve os usuários como um array JSON, um registro por vez. A memória usada não depende
+     * da quantidade de usuários, pois nenhuma lista é montada antes da serialização.
+     */
+    @Transactional(readOnly = true)
+    public void writeUsersAsJsonArray(Role role, OutputStream out) throws IOException {
+        try (Stream<UserListItemDTO> users = streamUsers(role);
+             JsonGenerator generator = createGenerator(out)) {
+            generator.writeStartArray();
+            writeEach(users, generator, false);
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Escreve os usuários em NDJSON: um objeto JSON por linha, que o cliente pode consumir
+     * à medida que chega.
+     */
+    @Transactional(readOnly = true)
+    public void writeUsersAsNdjson(Role role, OutputStream out) throws IOException {
+        try (Stream<UserListItemDTO> users = streamUsers(role);
+             JsonGenerator generator = createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            writeEach(users, generator, true);
+        }
+    }
+
+    // O fechamento da resposta fica a cargo do Spring MVC
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return objectMapper.getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private Stream<UserListItemDTO> streamUsers(Role role) {
+        return role == null ? userRepository.streamAll() : userRepository.streamAllByRole(role);
+    }
+
+    private void writeEach(Stream<UserListItemDTO> users, JsonGenerator generator, boolean lineDelimited) throws IOException {
+        int written = 0;
+        Iterator<UserListItemDTO> iterator = users.iterator();
+        while (iterator.hasNext()) {
+            generator.writeObject(iterator.next());
+            if (lineDelimited) {
+                generator.writeRaw('\n');
+            }
+            if (++written % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        }
+    }
+}
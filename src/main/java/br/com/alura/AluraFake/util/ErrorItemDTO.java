@@ -21,6 +21,17 @@ public class ErrorItemDTO {
         this.message = message;
     }
 
+    /**
+     * Converte a mensagem de uma {@code ValidationException} no formato {@code "campo|mensagem"}.
+     */
+    public static ErrorItemDTO fromMessage(String message) {
+        int separator = message == null ? -1 : message.indexOf('|');
+        if (separator < 1 || separator == message.length() - 1) {
+            return new ErrorItemDTO("request", message == null || message.isBlank() ? "Requisição inválida" : message.trim());
+        }
+        return new ErrorItemDTO(message.substring(0, separator).trim(), message.substring(separator + 1).trim());
+    }
+
     public String getField() {
         return field;
     }
@@ -1,12 +1,14 @@
 package br.com.alura.AluraFake.util;
 
-import java.util.Random;
+import java.security.SecureRandom;
 
 public class PasswordGeneration{
 
+    // SecureRandom é thread-safe: uma instância compartilhada evita criar um gerador por usuário
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     public static String generatePassword() {
-        Random random = new Random();
-        int password = 100000 + random.nextInt(900000);
+        int password = 100000 + RANDOM.nextInt(900000);
         return String.valueOf(password);
     }
 }
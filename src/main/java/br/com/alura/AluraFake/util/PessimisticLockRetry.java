@@ -0,0 +1,46 @@
+package br.com.alura.AluraFake.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Reexecuta uma transação que perdeu a disputa pelo lock de uma linha (timeout ou deadlock).
+ * Deve envolver a chamada ao serviço transacional, nunca ser usado dentro da transação.
+ */
+@Component
+public class PessimisticLockRetry {
+
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public PessimisticLockRetry(@Value("${alurafake.lock.max-attempts:3}") int maxAttempts,
+                                @Value("${alurafake.lock.backoff-ms:50}") long backoffMillis) {
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (PessimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    throw ex;
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(backoffMillis * attempt);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando nova tentativa", ex);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.alura.AluraFake.util;
+
+import jakarta.validation.ValidationException;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Leva de uma vez todos os erros encontrados por uma validação. A mensagem repete o primeiro erro no
+ * formato {@code "campo|mensagem"}, para quem só trata {@link ValidationException}. Não preenche a
+ * pilha: é um resultado de validação esperado, não uma falha a depurar.
+ */
+public class ValidationErrorsException extends ValidationException {
+
+    private final List<ErrorItemDTO> errors;
+
+    public ValidationErrorsException(List<ErrorItemDTO> errors) {
+        super(errors.get(0).getField() + "|" + errors.get(0).getMessage());
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<ErrorItemDTO> getErrors() {
+        return errors;
+    }
+
+    public ValidationErrorsException mapFields(UnaryOperator<String> mapping) {
+        return new ValidationErrorsException(errors.stream()
+                .map(error -> new ErrorItemDTO(mapping.apply(error.getField()), error.getMessage()))
+                .toList());
+    }
+
+    public ValidationErrorsException withFieldPrefix(String prefix) {
+        return mapFields(field -> prefix + field);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -1,5 +1,9 @@
 package br.com.alura.AluraFake.util;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ValidationException;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -12,10 +16,35 @@ import java.util.List;
 @ControllerAdvice
 public class ValidationExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    public ValidationExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<List<ErrorItemDTO>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         List<ErrorItemDTO> errors = ex.getBindingResult().getFieldErrors().stream().map(ErrorItemDTO::new).toList();
+        errors.forEach(error -> countRejection(error.getField()));
         return ResponseEntity.badRequest().body(errors);
     }
+
+    @ExceptionHandler(ValidationErrorsException.class)
+    public ResponseEntity<List<ErrorItemDTO>> handleValidationErrors(ValidationErrorsException ex) {
+        ex.getErrors().forEach(error -> countRejection(error.getField()));
+        return ResponseEntity.badRequest().body(ex.getErrors());
+    }
+
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<List<ErrorItemDTO>> handleBusinessValidation(ValidationException ex) {
+        ErrorItemDTO error = ErrorItemDTO.fromMessage(ex.getMessage());
+        countRejection(error.getField());
+        return ResponseEntity.badRequest().body(List.of(error));
+    }
+
+    private void countRejection(String field) {
+        meterRegistry.counter("alurafake.validation.rejections", "field", ValidationMetrics.normalizeField(field),
+                "source", "http").increment();
+    }
 }
\ No newline at end of file
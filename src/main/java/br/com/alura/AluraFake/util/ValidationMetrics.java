@@ -0,0 +1,18 @@
+package br.com.alura.AluraFake.util;
+
+import java.util.regex.Pattern;
+
+public final class ValidationMetrics {
+
+    private static final Pattern ITEM_INDEX = Pattern.compile("\\[\\d+]");
+
+    private ValidationMetrics() {}
+
+    /**
+     * Remove os índices de itens ("tasks[12].order" vira "tasks[].order") para que a tag do campo
+     * tenha cardinalidade limitada.
+     */
+    public static String normalizeField(String field) {
+        return ITEM_INDEX.matcher(field).replaceAll("[]");
+    }
+}
@@ -0,0 +1,61 @@
+package db.migration;
+
+import br.com.alura.AluraFake.task.StatementHash;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Recalcula {@code statement_hash} com o mesmo {@link StatementHash} usado pela aplicação. O backfill da V6
+ * usava {@code SHA2(LOWER(TRIM(statement)))}: o TRIM do MySQL só remove espaços e o LOWER segue a collation,
+ * então enunciados com tabulação ou quebra de linha nas pontas ficavam com um hash que a aplicação nunca
+ * calcularia, e a verificação de duplicidade não os encontrava.
+ */
+public class V12__RehashTaskStatements extends BaseJavaMigration {
+
+    static final int PAGE_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        rehash(context.getConnection());
+    }
+
+    // Paginado pela chave para não manter um cursor aberto enquanto atualiza a mesma conexão
+    static int rehash(Connection connection) throws SQLException {
+        int updated = 0;
+        long lastId = Long.MIN_VALUE;
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, statement, statement_hash FROM Task WHERE id > ? ORDER BY id LIMIT " + PAGE_SIZE);
+             PreparedStatement update = connection.prepareStatement("UPDATE Task SET statement_hash = ? WHERE id = ?")) {
+            boolean more = true;
+            while (more) {
+                select.setLong(1, lastId);
+                int rows = 0;
+                int pending = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        lastId = rs.getLong("id");
+                        String hash = StatementHash.of(rs.getString("statement"));
+                        if (!hash.equals(rs.getString("statement_hash"))) {
+                            update.setString(1, hash);
+                            update.setLong(2, lastId);
+                            update.addBatch();
+                            pending++;
+                        }
+                    }
+                }
+                if (pending > 0) {
+                    update.executeBatch();
+                    updated += pending;
+                }
+                more = rows == PAGE_SIZE;
+            }
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,9 @@
+-- Ranks já são únicos por curso na aplicação; a constraint garante isso sob concorrência e atende as
+-- consultas por course_id ordenadas por task_rank. Ela substitui o índice implícito da FK_Task_Course.
+ALTER TABLE Task ADD CONSTRAINT UC_Task_Course_Rank UNIQUE (course_id, task_rank);
+
+-- Alternativas buscadas por task_id IN (...) ORDER BY id
+CREATE INDEX IX_Option_Task_Id ON options_table (task_id, id);
+
+-- Relatório do instrutor e contagem de cursos publicados
+CREATE INDEX IX_Course_Instructor_Status ON Course (instructor_id, status);
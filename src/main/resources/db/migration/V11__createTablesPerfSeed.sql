@@ -0,0 +1,24 @@
+-- Controle do gerador de massa de dados (perfil perf): cada lote é gravado na mesma transação que o
+-- marca como concluído, então uma carga interrompida continua de onde parou.
+CREATE TABLE IF NOT EXISTS PerfSeedRun (
+    id bigint(20) NOT NULL AUTO_INCREMENT,
+    users int NOT NULL,
+    courses int NOT NULL,
+    tasks_per_course int NOT NULL,
+    published_percent int NOT NULL,
+    user_base bigint(20) NOT NULL,
+    course_base bigint(20) NOT NULL,
+    task_base bigint(20) NOT NULL,
+    option_base bigint(20) NOT NULL,
+    createdAt datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    finishedAt datetime NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC;
+
+CREATE TABLE IF NOT EXISTS PerfSeedChunk (
+    run_id bigint(20) NOT NULL,
+    kind varchar(10) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,
+    chunk int NOT NULL,
+    PRIMARY KEY (run_id, kind, chunk),
+    CONSTRAINT FK_PerfSeedChunk_Run FOREIGN KEY (run_id) REFERENCES PerfSeedRun(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC;
@@ -0,0 +1,13 @@
+-- Os números de lote gravados em PerfSeedChunk só valem com o tamanho de lote da carga que os gerou.
+-- Cargas anteriores a esta coluna usaram os tamanhos padrão da época.
+ALTER TABLE PerfSeedRun
+    ADD COLUMN user_chunk_size int NULL,
+    ADD COLUMN course_chunk_size int NULL;
+
+UPDATE PerfSeedRun
+SET user_chunk_size = 5000,
+    course_chunk_size = GREATEST(1, 20000 DIV GREATEST(1, tasks_per_course));
+
+ALTER TABLE PerfSeedRun
+    MODIFY user_chunk_size int NOT NULL,
+    MODIFY course_chunk_size int NOT NULL;
@@ -0,0 +1,5 @@
+-- O filtro de Bloom de enunciados só conhece o que a própria instância gravou ou leu ao aquecer; com mais
+-- de uma instância, quem garante que o enunciado não se repete é o banco
+ALTER TABLE Task ADD CONSTRAINT UC_Task_StatementHash UNIQUE (statement_hash);
+
+DROP INDEX IX_Task_StatementHash ON Task;
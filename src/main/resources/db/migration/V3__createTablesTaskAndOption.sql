@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS Task (
+    id bigint(20) NOT NULL,
+    createdAt datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    statement varchar(255) NOT NULL,
+    type enum('OPEN_TEXT', 'MULTIPLE_CHOICE', 'SINGLE_CHOICE') CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL,
+    task_order int NOT NULL,
+    course_id bigint(20) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT FK_Task_Course FOREIGN KEY (course_id) REFERENCES Course(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC;
+
+CREATE TABLE IF NOT EXISTS options_table (
+    id bigint(20) NOT NULL,
+    option_text varchar(80) NOT NULL,
+    isCorrect bit(1) NOT NULL,
+    task_id bigint(20) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT FK_Option_Task FOREIGN KEY (task_id) REFERENCES Task(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC;
@@ -0,0 +1,21 @@
+-- MySQL has no sequences, so Hibernate emulates them with single-row tables. Each pool starts
+-- after the highest id already assigned by AUTO_INCREMENT.
+CREATE TABLE User_SEQ (
+    next_val bigint(20) NOT NULL
+) ENGINE=InnoDB;
+INSERT INTO User_SEQ (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM User;
+
+CREATE TABLE Course_SEQ (
+    next_val bigint(20) NOT NULL
+) ENGINE=InnoDB;
+INSERT INTO Course_SEQ (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM Course;
+
+CREATE TABLE Task_SEQ (
+    next_val bigint(20) NOT NULL
+) ENGINE=InnoDB;
+INSERT INTO Task_SEQ (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM Task;
+
+CREATE TABLE Option_SEQ (
+    next_val bigint(20) NOT NULL
+) ENGINE=InnoDB;
+INSERT INTO Option_SEQ (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM options_table;
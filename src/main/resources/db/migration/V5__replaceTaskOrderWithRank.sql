@@ -0,0 +1,5 @@
+ALTER TABLE Task ADD COLUMN task_rank bigint(20) NULL;
+
+UPDATE Task SET task_rank = task_order * 4294967296;
+
+ALTER TABLE Task MODIFY task_rank bigint(20) NOT NULL, DROP COLUMN task_order;
@@ -0,0 +1,7 @@
+ALTER TABLE Task ADD COLUMN statement_hash char(64) CHARACTER SET ascii COLLATE ascii_bin NULL;
+
+UPDATE Task SET statement_hash = SHA2(LOWER(TRIM(statement)), 256);
+
+ALTER TABLE Task MODIFY statement_hash char(64) CHARACTER SET ascii COLLATE ascii_bin NOT NULL;
+
+CREATE INDEX IX_Task_StatementHash ON Task (statement_hash);
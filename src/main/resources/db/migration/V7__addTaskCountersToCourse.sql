@@ -0,0 +1,20 @@
+ALTER TABLE Course
+    ADD COLUMN taskCount int NOT NULL DEFAULT 0,
+    ADD COLUMN openTextTaskCount int NOT NULL DEFAULT 0,
+    ADD COLUMN singleChoiceTaskCount int NOT NULL DEFAULT 0,
+    ADD COLUMN multipleChoiceTaskCount int NOT NULL DEFAULT 0;
+
+UPDATE Course c
+JOIN (
+    SELECT course_id,
+           COUNT(*) AS total,
+           SUM(type = 'OPEN_TEXT') AS openText,
+           SUM(type = 'SINGLE_CHOICE') AS singleChoice,
+           SUM(type = 'MULTIPLE_CHOICE') AS multipleChoice
+    FROM Task
+    GROUP BY course_id
+) t ON t.course_id = c.id
+SET c.taskCount = t.total,
+    c.openTextTaskCount = t.openText,
+    c.singleChoiceTaskCount = t.singleChoice,
+    c.multipleChoiceTaskCount = t.multipleChoice;
@@ -0,0 +1 @@
+CREATE INDEX IX_Course_Status_Id ON Course (status, id);
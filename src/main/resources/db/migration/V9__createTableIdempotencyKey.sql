@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS IdempotencyKey (
+    idempotency_key varchar(300) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,
+    fingerprint char(64) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,
+    status smallint NOT NULL,
+    content_type varchar(100) NULL,
+    body mediumblob NULL,
+    expires_at datetime(3) NOT NULL,
+    PRIMARY KEY (idempotency_key),
+    INDEX IX_IdempotencyKey_ExpiresAt (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC;
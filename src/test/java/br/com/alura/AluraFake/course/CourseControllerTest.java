@@ -2,10 +2,12 @@ package br.com.alura.AluraFake.course;
 
 import br.com.alura.AluraFake.user.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -24,6 +26,12 @@ class CourseControllerTest {
     private UserRepository userRepository;
     @MockBean
     private CourseRepository courseRepository;
+    @MockBean
+    private CourseService courseService;
+    @MockBean
+    private InstructorReportCache reportCache;
+    @MockBean
+    private CourseTransferService transferService;
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -88,27 +96,96 @@ class CourseControllerTest {
                 .andExpect(status().isCreated());
 
         verify(courseRepository, times(1)).save(any(Course.class));
+        verify(reportCache).evict(user.getId());
     }
 
     @Test
     void listAllCourses__should_list_all_courses() throws Exception {
-        User paulo = new User("Paulo", "paulo@alua.com.br", Role.INSTRUCTOR);
-
-        Course java = new Course("Java", "Curso de java", paulo);
-        Course hibernate = new Course("Hibernate", "Curso de hibernate", paulo);
-        Course spring = new Course("Spring", "Curso de spring", paulo);
+        List<CourseListItemDTO> courses = List.of(
+                new CourseListItemDTO(1L, "Java", "Curso de java", Status.BUILDING),
+                new CourseListItemDTO(2L, "Hibernate", "Curso de hibernate", Status.BUILDING),
+                new CourseListItemDTO(3L, "Spring", "Curso de spring", Status.PUBLISHED));
 
-        when(courseRepository.findAll()).thenReturn(Arrays.asList(java, hibernate, spring));
+        when(courseRepository.findPageAfter(0L, Limit.of(51))).thenReturn(courses);
 
         mockMvc.perform(get("/course/all")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$[0].title").value("Java"))
                 .andExpect(jsonPath("$[0].description").value("Curso de java"))
                 .andExpect(jsonPath("$[1].title").value("Hibernate"))
                 .andExpect(jsonPath("$[1].description").value("Curso de hibernate"))
                 .andExpect(jsonPath("$[2].title").value("Spring"))
                 .andExpect(jsonPath("$[2].description").value("Curso de spring"));
+
+        verify(courseRepository, never()).findAll();
+    }
+
+    @Test
+    void listAllCourses__should_return_next_cursor_when_there_are_more_courses() throws Exception {
+        List<CourseListItemDTO> courses = List.of(
+                new CourseListItemDTO(11L, "Java", "Curso de java", Status.PUBLISHED),
+                new CourseListItemDTO(12L, "Spring", "Curso de spring", Status.PUBLISHED),
+                new CourseListItemDTO(15L, "Hibernate", "Curso de hibernate", Status.PUBLISHED));
+
+        when(courseRepository.findPageAfterByStatus(10L, Status.PUBLISHED, Limit.of(3))).thenReturn(courses);
+
+        mockMvc.perform(get("/course/all")
+                        .param("after", "10")
+                        .param("size", "2")
+                        .param("status", "PUBLISHED"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "12"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].id").value(12));
+    }
+
+    @Test
+    void listAllCourses__should_cap_page_size() throws Exception {
+        when(courseRepository.findPageAfter(0L, Limit.of(101))).thenReturn(List.of());
+
+        mockMvc.perform(get("/course/all")
+                        .param("size", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        verify(courseRepository).findPageAfter(0L, Limit.of(101));
+    }
+
+    @Test
+    void publishCourse__should_return_validation_error_as_list() throws Exception {
+        doThrow(new ValidationException("id|O curso precisa ter ao menos uma atividade"))
+                .when(courseService).publishCourse(42L);
+
+        mockMvc.perform(post("/course/42/publish"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].field").value("id"))
+                .andExpect(jsonPath("$[0].message").value("O curso precisa ter ao menos uma atividade"));
+    }
+
+    @Test
+    void exportCourse__should_return_not_found_when_course_does_not_exist() throws Exception {
+        when(courseRepository.existsById(42L)).thenReturn(false);
+
+        mockMvc.perform(get("/course/42/export"))
+                .andExpect(status().isNotFound());
+
+        verifyNoInteractions(transferService);
+    }
+
+    @Test
+    void importCourse__should_return_created_with_location() throws Exception {
+        when(transferService.importCourse(any())).thenReturn(new CourseImportResultDTO(7L, 3));
+
+        mockMvc.perform(post("/course/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"title\":\"Java\"}\n"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/course/7/tasks"))
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.taskCount").value(3));
     }
 
-}
\ No newline at end of file
+}
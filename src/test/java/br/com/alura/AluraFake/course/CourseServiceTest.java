@@ -1,11 +1,11 @@
 package br.com.alura.AluraFake.course;
 
-import br.com.alura.AluraFake.task.TaskRepository;
 import br.com.alura.AluraFake.task.Type;
 import br.com.alura.AluraFake.user.Role;
 import br.com.alura.AluraFake.user.User;
 import br.com.alura.AluraFake.user.UserInstructorCourseReportDTO;
-import br.com.alura.AluraFake.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,10 +14,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -35,10 +37,10 @@ class CourseServiceTest {
 
     @Mock
     private CourseRepository courseRepository;
-    @Mock
-    private UserRepository userRepository;
-    @Mock
-    private TaskRepository taskRepository;
+    @Spy
+    private InstructorReportCache reportCache = new InstructorReportCache(100);
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     private Long courseId = 10L;
     private Long instructorId = 1L;
@@ -52,21 +54,7 @@ class CourseServiceTest {
         courseBuilding.setStatus(Status.BUILDING);
 
         lenient().when(courseRepository.findById(courseId)).thenReturn(Optional.of(courseBuilding));
-    }
-
-    private void injectId(Course course, Long id) {
-        try {
-            java.lang.reflect.Field idField = Course.class.getDeclaredField("id");
-
-            idField.setAccessible(true);
-
-            idField.set(course, id);
-
-            idField.setAccessible(false);
-
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            throw new RuntimeException("Falha ao injetar ID usando Reflexão. Verifique o nome do campo 'id' na entidade Course.", e);
-        }
+        lenient().when(courseRepository.findByIdForUpdate(courseId)).thenReturn(Optional.of(courseBuilding));
     }
 
     @Nested
@@ -74,13 +62,9 @@ class CourseServiceTest {
     class PublishCourseTests {
 
         private void mockSuccessConditions() {
-            lenient().when(taskRepository.findAllOrdersByCourseId(courseId)).thenReturn(List.of(1, 2));
-
-            lenient().when(taskRepository.countTasksByTypeForCourse(courseId)).thenReturn(List.of(
-                    new Object[]{Type.OPEN_TEXT, 1L},
-                    new Object[]{Type.SINGLE_CHOICE, 1L},
-                    new Object[]{Type.MULTIPLE_CHOICE, 1L}
-            ));
+            courseBuilding.registerTask(Type.OPEN_TEXT);
+            courseBuilding.registerTask(Type.SINGLE_CHOICE);
+            courseBuilding.registerTask(Type.MULTIPLE_CHOICE);
         }
 
         @Test
@@ -94,6 +78,8 @@ class CourseServiceTest {
             assertEquals(Status.PUBLISHED, published.getStatus());
             assertNotNull(published.getPublishedAt());
             verify(courseRepository, times(1)).save(published);
+            assertEquals(1, meterRegistry.get("alurafake.course.publish").timer().count());
+            verify(reportCache).evict(instructor.getId());
         }
 
         @Test
@@ -112,12 +98,9 @@ class CourseServiceTest {
         @Test
         @DisplayName("Falha: Tipos: Deve lançar exceção se faltar algum tipo de atividade.")
         void shouldFailIfTaskTypeCoverageIsMissing() {
-            lenient().when(taskRepository.findAllOrdersByCourseId(courseId)).thenReturn(List.of(1, 2, 3));
-
-            when(taskRepository.countTasksByTypeForCourse(courseId)).thenReturn(List.of(
-                    new Object[]{Type.SINGLE_CHOICE, 1L},
-                    new Object[]{Type.MULTIPLE_CHOICE, 1L}
-            ));
+            courseBuilding.registerTask(Type.SINGLE_CHOICE);
+            courseBuilding.registerTask(Type.MULTIPLE_CHOICE);
+            courseBuilding.registerTask(Type.MULTIPLE_CHOICE);
 
             ValidationException exception = assertThrows(ValidationException.class, () -> {
                 courseService.publishCourse(courseId);
@@ -128,48 +111,70 @@ class CourseServiceTest {
         }
 
         @Test
-        @DisplayName("Falha: Ordem: Deve lançar exceção se a sequência não for contínua (Salto).")
-        void shouldFailIfOrderIsNotContinuous() {
-            // Ordem com salto: 1, 3 (falta o 2)
-            when(taskRepository.findAllOrdersByCourseId(courseId)).thenReturn(List.of(1, 3));
-
+        @DisplayName("Falha: Vazio: Deve lançar exceção se o curso não tiver atividades.")
+        void shouldFailIfCourseHasNoTasks() {
             ValidationException exception = assertThrows(ValidationException.class, () -> {
                 courseService.publishCourse(courseId);
             });
 
-            assertTrue(exception.getMessage().contains("Salto encontrado na ordem 2."));
+            assertTrue(exception.getMessage().startsWith("tasks|"));
             verify(courseRepository, never()).save(any());
         }
     }
 
     @Nested
-    @DisplayName("Relatório de Instrutor (generateInstructorReport)")
-    class InstructorReportTests {
+    @DisplayName("Prontidão para Publicação (getReadiness)")
+    class ReadinessTests {
 
-        private List<Course> instructorCourses;
+        @Test
+        @DisplayName("Sucesso: Deve apontar os tipos de atividade que faltam sem consultar as atividades.")
+        void shouldReportMissingTaskTypes() {
+            courseBuilding.registerTask(Type.OPEN_TEXT);
+            courseBuilding.registerTask(Type.SINGLE_CHOICE);
 
-        @BeforeEach
-        void setupReport() {
-            // Cursos mockados: 2 publicados, 1 em construção
-            Course course1 = new Course("Java Básico", "Desc", instructor);
-            course1.setStatus(Status.PUBLISHED);
-            Course course2 = new Course("Spring Avançado", "Desc", instructor);
-            course2.setStatus(Status.BUILDING);
-            Course course3 = new Course("SQL", "Desc", instructor);
-            course3.setStatus(Status.PUBLISHED);
+            CourseReadinessDTO readiness = courseService.getReadiness(courseId);
 
-            injectId(course1, 20L);
-            injectId(course2, 21L);
-            injectId(course3, 22L);
+            assertEquals(2, readiness.getTaskCount());
+            assertEquals(List.of(Type.MULTIPLE_CHOICE), readiness.getMissingTaskTypes());
+            assertFalse(readiness.isReadyToPublish());
+        }
 
-            instructorCourses = List.of(course1, course2, course3);
+        @Test
+        @DisplayName("Sucesso: Deve indicar que o curso pode ser publicado.")
+        void shouldReportReadyToPublish() {
+            courseBuilding.registerTask(Type.OPEN_TEXT);
+            courseBuilding.registerTask(Type.SINGLE_CHOICE);
+            courseBuilding.registerTask(Type.MULTIPLE_CHOICE);
 
-            lenient().when(userRepository.findById(instructorId)).thenReturn(Optional.of(instructor));
-            lenient().when(courseRepository.findByAuthor(instructor)).thenReturn(instructorCourses);
+            assertTrue(courseService.getReadiness(courseId).isReadyToPublish());
+        }
 
-            lenient().when(taskRepository.countTasksByCourseForInstructor(instructorId)).thenReturn(List.of(
-                    new Object[]{20L, 5L}, // Course 20 tem 5 tasks
-                    new Object[]{21L, 2L}  // Course 21 tem 2 tasks
+        @Test
+        @DisplayName("Falha: Deve lançar 404 se o curso não existir.")
+        void shouldFailIfCourseDoesNotExist() {
+            when(courseRepository.findById(99L)).thenReturn(Optional.empty());
+
+            ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+                    courseService.getReadiness(99L));
+
+            assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        }
+    }
+
+    @Nested
+    @DisplayName("Relatório de Instrutor (generateInstructorReport)")
+    class InstructorReportTests {
+
+        @BeforeEach
+        void setupReport() {
+            // Cursos mockados: 2 publicados, 1 em construção
+            lenient().when(courseRepository.findInstructorReportRows(instructorId)).thenReturn(List.of(
+                    new InstructorReportRow("Instrutor Teste", Role.INSTRUCTOR, 20L, "Java Básico", Status.PUBLISHED,
+                            LocalDateTime.now(), 5),
+                    new InstructorReportRow("Instrutor Teste", Role.INSTRUCTOR, 21L, "Spring Avançado", Status.BUILDING,
+                            null, 2),
+                    new InstructorReportRow("Instrutor Teste", Role.INSTRUCTOR, 22L, "SQL", Status.PUBLISHED,
+                            LocalDateTime.now(), 0)
             ));
         }
 
@@ -178,6 +183,7 @@ class CourseServiceTest {
         void shouldGenerateReportWithCorrectAggregations() {
             UserInstructorCourseReportDTO report = courseService.generateInstructorReport(instructorId);
 
+            assertEquals("Instrutor Teste", report.getName());
             assertEquals(2, report.getTotalPublishedCourses());
 
             Map<Long, Integer> taskCounts = report.getCourses().stream()
@@ -186,13 +192,15 @@ class CourseServiceTest {
             assertEquals(3, report.getCourses().size());
             assertEquals(5, taskCounts.get(20L)); // Java Básico
             assertEquals(2, taskCounts.get(21L)); // Spring Avançado
-            assertEquals(0, taskCounts.get(22L)); // SQL (sem contagem no mock, deve ser 0 por default)
+            assertEquals(0, taskCounts.get(22L)); // SQL
         }
 
         @Test
         @DisplayName("Sucesso: Deve retornar lista vazia se o instrutor não tiver cursos.")
         void shouldReturnEmptyListIfInstructorHasNoCourses() {
-            when(courseRepository.findByAuthor(instructor)).thenReturn(Collections.emptyList());
+            // LEFT JOIN sem cursos: uma linha apenas com os dados do instrutor
+            when(courseRepository.findInstructorReportRows(instructorId)).thenReturn(List.of(
+                    new InstructorReportRow("Instrutor Teste", Role.INSTRUCTOR, null, null, null, null, null)));
 
             UserInstructorCourseReportDTO report = courseService.generateInstructorReport(instructorId);
 
@@ -203,7 +211,7 @@ class CourseServiceTest {
         @Test
         @DisplayName("Falha: Usuário: Deve lançar 404 se o ID do usuário não existir.")
         void shouldFailIfUserDoesNotExist() {
-            when(userRepository.findById(instructorId)).thenReturn(Optional.empty());
+            when(courseRepository.findInstructorReportRows(instructorId)).thenReturn(Collections.emptyList());
 
             ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
                 courseService.generateInstructorReport(instructorId);
@@ -216,8 +224,8 @@ class CourseServiceTest {
         @Test
         @DisplayName("Falha: Usuário: Deve lançar 400 se o usuário existir mas NÃO for instrutor.")
         void shouldFailIfUserIsNotInstructor() {
-            User nonInstructor = new User("Aluno", "aluno@alura.com", Role.STUDENT); // isInstructor = false
-            when(userRepository.findById(instructorId)).thenReturn(Optional.of(nonInstructor));
+            when(courseRepository.findInstructorReportRows(instructorId)).thenReturn(List.of(
+                    new InstructorReportRow("Aluno", Role.STUDENT, null, null, null, null, null)));
 
             ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
                 courseService.generateInstructorReport(instructorId);
@@ -225,6 +233,36 @@ class CourseServiceTest {
 
             assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
             assertTrue(exception.getReason().contains("nao é um instrutor"));
+            assertEquals(0, reportCache.size());
+        }
+
+        @Test
+        @DisplayName("Cache: Deve consultar o banco uma única vez enquanto o relatório não for invalidado.")
+        void shouldServeRepeatedReportsFromCache() {
+            UserInstructorCourseReportDTO first = courseService.generateInstructorReport(instructorId);
+            UserInstructorCourseReportDTO second = courseService.generateInstructorReport(instructorId);
+
+            assertSame(first, second);
+            verify(courseRepository, times(1)).findInstructorReportRows(instructorId);
+            assertEquals(1, reportCache.getHitCount());
+            assertEquals(1, reportCache.getMissCount());
+
+            reportCache.bindTo(meterRegistry);
+            assertEquals(1, meterRegistry.get("alurafake.instructor-report.cache.requests").tag("result", "hit")
+                    .functionCounter().count());
+            assertEquals(2, meterRegistry.get("alurafake.course.instructor-report").timer().count());
+        }
+
+        @Test
+        @DisplayName("Cache: Deve recalcular o relatório depois da invalidação do instrutor.")
+        void shouldReloadReportAfterEviction() {
+            courseService.generateInstructorReport(instructorId);
+
+            reportCache.evict(instructorId);
+            courseService.generateInstructorReport(instructorId);
+
+            verify(courseRepository, times(2)).findInstructorReportRows(instructorId);
+            assertEquals(2, reportCache.getMissCount());
         }
     }
 }
@@ -0,0 +1,149 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.option.Option;
+import br.com.alura.AluraFake.task.NewBulkTaskItemDTO;
+import br.com.alura.AluraFake.task.TaskService;
+import br.com.alura.AluraFake.task.Type;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class CourseTransferServiceTest {
+
+    @Autowired
+    private CourseTransferService transferService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private User instructor;
+
+    @BeforeEach
+    void setUp() {
+        instructor = userRepository.save(new User("Paulo", "transfer-" + runId + "@alura.com.br", Role.INSTRUCTOR));
+    }
+
+    private NewBulkTaskItemDTO item(Type type, int order, List<Option> options) {
+        NewBulkTaskItemDTO item = new NewBulkTaskItemDTO();
+        item.setType(type);
+        item.setStatement("Atividade " + order + " de " + runId);
+        item.setOrder(order);
+        item.setOptions(options);
+        return item;
+    }
+
+    private String taskLine(int order) {
+        return "{\"type\":\"OPEN_TEXT\",\"statement\":\"Importada " + order + " de " + runId + "\",\"order\":" + order
+                + ",\"options\":[]}\n";
+    }
+
+    private String courseLine() {
+        return "{\"title\":\"Java\",\"description\":\"Curso de Java\",\"emailInstructor\":\"" + instructor.getEmail() + "\"}\n";
+    }
+
+    @Test
+    void writeCourseAsNdjson__should_write_course_then_tasks_in_order() throws Exception {
+        Course course = courseRepository.save(new Course("Java", "Curso de Java", instructor));
+        taskService.createTasks(course.getId(), List.of(
+                item(Type.OPEN_TEXT, 1, new ArrayList<>()),
+                item(Type.SINGLE_CHOICE, 2, List.of(new Option("Spring", true), new Option("Django", false)))));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transferService.writeCourseAsNdjson(course.getId(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readTree(lines[0]).get("emailInstructor").asText()).isEqualTo(instructor.getEmail());
+
+        JsonNode first = objectMapper.readTree(lines[1]);
+        assertThat(first.get("order").asInt()).isEqualTo(1);
+        assertThat(first.get("options")).isEmpty();
+
+        JsonNode second = objectMapper.readTree(lines[2]);
+        assertThat(second.get("type").asText()).isEqualTo("SINGLE_CHOICE");
+        assertThat(second.get("options")).hasSize(2);
+        assertThat(second.get("options").get(0).get("isCorrect").asBoolean()).isTrue();
+
+        // O formato exportado é o mesmo que a importação aceita
+        assertThat(objectMapper.readValue(lines[2], NewBulkTaskItemDTO.class).getOptions()).hasSize(2);
+    }
+
+    @Test
+    void importCourse__should_create_course_and_tasks_across_batches() throws Exception {
+        int taskCount = CourseTransferService.IMPORT_BATCH_SIZE + 5;
+        StringBuilder ndjson = new StringBuilder(courseLine());
+        for (int order = 1; order <= taskCount; order++) {
+            ndjson.append(taskLine(order));
+        }
+
+        CourseImportResultDTO result = transferService.importCourse(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getTaskCount()).isEqualTo(taskCount);
+        Course imported = courseRepository.findById(result.getId()).orElseThrow();
+        assertThat(imported.getTaskCount()).isEqualTo(taskCount);
+    }
+
+    @Test
+    void importCourse__should_report_task_position_in_the_file() {
+        StringBuilder ndjson = new StringBuilder(courseLine());
+        for (int order = 1; order <= CourseTransferService.IMPORT_BATCH_SIZE; order++) {
+            ndjson.append(taskLine(order));
+        }
+        // Ordem fora de sequência no segundo lote
+        ndjson.append(taskLine(CourseTransferService.IMPORT_BATCH_SIZE + 3));
+
+        assertThatThrownBy(() -> transferService.importCourse(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageStartingWith("tasks[" + CourseTransferService.IMPORT_BATCH_SIZE + "].");
+    }
+
+    @Test
+    void importCourse__should_reject_user_that_is_not_an_instructor() {
+        User student = userRepository.save(new User("Caio", "student-" + runId + "@alura.com.br", Role.STUDENT));
+        String ndjson = "{\"title\":\"Java\",\"description\":\"Curso de Java\",\"emailInstructor\":\""
+                + student.getEmail() + "\"}\n";
+
+        assertThatThrownBy(() -> transferService.importCourse(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageStartingWith("emailInstructor|");
+    }
+
+    @Test
+    void shiftTaskIndex__should_offset_only_task_messages() {
+        assertThat(CourseTransferService.shiftTaskIndex("tasks[3].order|Ordem inválida", 200))
+                .isEqualTo("tasks[203].order|Ordem inválida");
+        assertThat(CourseTransferService.shiftTaskIndex("status|Curso deve ter status BUILDING", 200))
+                .isEqualTo("status|Curso deve ter status BUILDING");
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede as idas ao banco economizadas pelo cache de segundo nível. Cada chamada roda na própria
+ * transação, como em produção, para que o cache seja populado no commit.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+    private User instructor;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        String email = "cache-" + UUID.randomUUID().toString().substring(0, 8) + "@alura.com.br";
+        instructor = userRepository.save(new User("Paulo", email, Role.INSTRUCTOR));
+        course = courseRepository.save(new Course("Java", "Curso de Java", instructor));
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        courseRepository.deleteById(course.getId());
+        userRepository.deleteById(instructor.getId());
+    }
+
+    @Test
+    void findByIdForUpdate__should_load_the_instructor_from_cache_on_task_creation() {
+        long cold = countStatements(() -> transaction.executeWithoutResult(status ->
+                courseRepository.findByIdForUpdate(course.getId()).orElseThrow()));
+        long warm = countStatements(() -> transaction.executeWithoutResult(status ->
+                courseRepository.findByIdForUpdate(course.getId()).orElseThrow()));
+
+        // O SELECT ... FOR UPDATE precisa ir ao banco; a busca do instrutor deixa de ir
+        assertThat(cold).isEqualTo(2);
+        assertThat(warm).isEqualTo(1);
+    }
+
+    @Test
+    void findByEmail__should_be_served_by_the_query_cache() {
+        long cold = countStatements(() -> userRepository.findByEmail(instructor.getEmail()).orElseThrow());
+        long warm = countStatements(() -> userRepository.findByEmail(instructor.getEmail()).orElseThrow());
+
+        assertThat(cold).isEqualTo(1);
+        assertThat(warm).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isPositive();
+    }
+
+    @Test
+    void findById__should_see_status_changes_after_commit() {
+        courseRepository.findById(course.getId()).orElseThrow();
+
+        transaction.executeWithoutResult(status -> {
+            Course managed = courseRepository.findById(course.getId()).orElseThrow();
+            managed.setStatus(Status.PUBLISHED);
+        });
+
+        long statements = countStatements(() ->
+                assertThat(courseRepository.findById(course.getId()).orElseThrow().getStatus())
+                        .isEqualTo(Status.PUBLISHED));
+
+        assertThat(statements).isZero();
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
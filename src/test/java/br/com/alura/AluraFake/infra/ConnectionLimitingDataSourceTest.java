@@ -0,0 +1,51 @@
+package br.com.alura.AluraFake.infra;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionLimitingDataSourceTest {
+
+    private final DataSource target = mock(DataSource.class);
+    private final ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, 10);
+
+    @Test
+    void getConnection__should_wait_for_a_permit_and_time_out() throws Exception {
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+
+        Connection held = dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        verify(target, times(1)).getConnection();
+
+        held.close();
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void close__should_release_the_permit_only_once() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection limited = dataSource.getConnection();
+        limited.close();
+        limited.close();
+
+        assertEquals(1, dataSource.getAvailablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void getConnection__should_release_the_permit_when_the_pool_fails() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLException("pool esgotado"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+}
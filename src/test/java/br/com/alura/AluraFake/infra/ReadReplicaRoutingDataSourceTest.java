@@ -0,0 +1,90 @@
+package br.com.alura.AluraFake.infra;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Duas bases H2 em memória fazem o papel de primário e réplica; cada uma guarda o próprio nome,
+ * então a consulta revela para onde foi roteada.
+ */
+class ReadReplicaRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private ReadReplicaRoutingDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE Origin (name varchar(20))");
+        jdbc.update("INSERT INTO Origin VALUES (?)", name);
+        return database;
+    }
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        dataSource = new ReadReplicaRoutingDataSource(primary, replica);
+        jdbc = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    private String origin() {
+        return jdbc.queryForObject("SELECT name FROM Origin", String.class);
+    }
+
+    @Test
+    void readOnly_transaction__should_land_on_replica() {
+        assertEquals("replica", readOnlyTransaction.execute(status -> origin()));
+    }
+
+    @Test
+    void write_transaction__should_stay_on_primary() {
+        assertEquals("primary", writeTransaction.execute(status -> {
+            jdbc.update("INSERT INTO Origin VALUES ('escrita')");
+            return jdbc.queryForObject("SELECT name FROM Origin WHERE name <> 'escrita'", String.class);
+        }));
+        assertEquals(2, new JdbcTemplate(primary).queryForObject("SELECT COUNT(*) FROM Origin", Integer.class));
+        assertEquals(1, new JdbcTemplate(replica).queryForObject("SELECT COUNT(*) FROM Origin", Integer.class));
+    }
+
+    @Test
+    void work_outside_a_transaction__should_use_primary() {
+        assertEquals("primary", origin());
+    }
+
+    @Test
+    void readOnly_transaction_nested_in_a_write__should_keep_primary_connection() {
+        assertEquals("primary", writeTransaction.execute(status -> {
+            jdbc.update("INSERT INTO Origin VALUES ('escrita')");
+            return readOnlyTransaction.execute(inner ->
+                    jdbc.queryForObject("SELECT name FROM Origin WHERE name <> 'escrita'", String.class));
+        }));
+    }
+}
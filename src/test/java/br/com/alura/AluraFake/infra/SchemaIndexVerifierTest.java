@@ -0,0 +1,75 @@
+package br.com.alura.AluraFake.infra;
+
+import br.com.alura.AluraFake.infra.SchemaIndexVerifier.RequiredIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaIndexVerifierTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE Course (id bigint PRIMARY KEY, instructor_id bigint, status varchar(20))");
+        jdbc.execute("CREATE TABLE Task (id bigint PRIMARY KEY, course_id bigint, task_rank bigint, statement_hash char(64))");
+        jdbc.execute("CREATE TABLE options_table (id bigint PRIMARY KEY, task_id bigint)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    private void createAllIndexes() {
+        jdbc.execute("ALTER TABLE Task ADD CONSTRAINT UC_Task_Course_Rank UNIQUE (course_id, task_rank)");
+        jdbc.execute("ALTER TABLE Task ADD CONSTRAINT UC_Task_StatementHash UNIQUE (statement_hash)");
+        jdbc.execute("CREATE INDEX IX_Option_Task_Id ON options_table (task_id, id)");
+        jdbc.execute("CREATE INDEX IX_Course_Instructor_Status ON Course (instructor_id, status)");
+        jdbc.execute("CREATE INDEX IX_Course_Status_Id ON Course (status, id)");
+    }
+
+    @Test
+    void should_find_nothing_missing_when_migrations_ran() throws Exception {
+        createAllIndexes();
+
+        assertEquals(List.of(), SchemaIndexVerifier.findMissingIndexes(database, SchemaIndexVerifier.REQUIRED_INDEXES));
+    }
+
+    @Test
+    void should_report_every_missing_index() throws Exception {
+        List<RequiredIndex> missing = SchemaIndexVerifier.findMissingIndexes(database, SchemaIndexVerifier.REQUIRED_INDEXES);
+
+        assertEquals(SchemaIndexVerifier.REQUIRED_INDEXES, missing);
+    }
+
+    @Test
+    void should_not_accept_non_unique_index_where_unique_is_required() throws Exception {
+        jdbc.execute("CREATE INDEX IX_Task_Course_Rank ON Task (course_id, task_rank)");
+        RequiredIndex uniqueRank = new RequiredIndex("Task", List.of("course_id", "task_rank"), true);
+
+        assertEquals(List.of(uniqueRank), SchemaIndexVerifier.findMissingIndexes(database, List.of(uniqueRank)));
+    }
+
+    @Test
+    void should_accept_wider_index_with_expected_leading_columns() throws Exception {
+        jdbc.execute("CREATE INDEX IX_Course_Instructor_Status_Id ON Course (instructor_id, status, id)");
+        RequiredIndex instructorStatus = new RequiredIndex("Course", List.of("instructor_id", "status"), false);
+
+        assertEquals(List.of(), SchemaIndexVerifier.findMissingIndexes(database, List.of(instructorStatus)));
+    }
+}
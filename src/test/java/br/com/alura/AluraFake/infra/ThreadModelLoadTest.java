@@ -0,0 +1,107 @@
+package br.com.alura.AluraFake.infra;
+
+import br.com.alura.AluraFake.AluraFakeApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara o modo padrão (pool de threads do Tomcat) com o perfil {@code virtual} sob a mesma carga
+ * de leituras no banco, reportando vazão e latências p50/p99. Roda apenas com {@code mvn test -Pperf}.
+ */
+@Tag("perf")
+class ThreadModelLoadTest {
+
+    private static final int CLIENTS = 1_000;
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final int WARMUP_REQUESTS = 500;
+
+    @Test
+    void platform_and_virtual_threads_should_serve_the_same_load() throws Exception {
+        Result platform = run("plataforma", "test");
+        Result virtual = run("virtual", "test", "virtual");
+
+        System.out.printf("[carga] %-10s %10s %10s %10s%n", "modo", "req/s", "p50 (ms)", "p99 (ms)");
+        for (Result result : List.of(platform, virtual)) {
+            System.out.printf("[carga] %-10s %10.1f %10.2f %10.2f%n",
+                    result.mode(), result.throughput(), result.p50Millis(), result.p99Millis());
+        }
+
+        assertThat(platform.failures()).isZero();
+        assertThat(virtual.failures()).isZero();
+    }
+
+    private Result run(String mode, String... profiles) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AluraFakeApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0", "spring.jpa.show-sql=false")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/course/all?size=20");
+
+            try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+                for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                    client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding());
+                }
+                return measure(mode, client, uri);
+            }
+        }
+    }
+
+    private Result measure(String mode, HttpClient client, URI uri) throws Exception {
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(CLIENTS);
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        latencies[next.getAndIncrement()] = System.nanoTime() - sent;
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Arrays.sort(latencies);
+        return new Result(mode, latencies.length / seconds, percentile(latencies, 0.50), percentile(latencies, 0.99),
+                failures.get());
+    }
+
+    private static double percentile(long[] sortedNanos, double quantile) {
+        int index = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private record Result(String mode, double throughput, double p50Millis, double p99Millis, int failures) {
+    }
+}
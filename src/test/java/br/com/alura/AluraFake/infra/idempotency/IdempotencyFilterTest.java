@@ -0,0 +1,263 @@
+package br.com.alura.AluraFake.infra.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-01-01T10:00:00Z"), ZoneOffset.UTC);
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(100, clock);
+    private final IdempotencyFilter filter = new IdempotencyFilter(store, IdempotencyConfiguration.IDEMPOTENT_PATHS,
+            Duration.ofMinutes(10), Duration.ofSeconds(5), clock, new ObjectMapper(), 1024);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final FilterChain createCourse = (request, response) -> {
+        executions.incrementAndGet();
+        String body = StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8);
+        ((HttpServletResponse) response).setStatus(201);
+        response.setContentType("application/json");
+        response.getOutputStream().write(("{\"echo\":" + body + "}").getBytes(StandardCharsets.UTF_8));
+    };
+
+    @Test
+    void replayed_key_should_return_the_stored_response_without_executing_again() throws Exception {
+        MockHttpServletResponse first = perform("/course/new", "abc-123", "{\"title\":\"Java\"}", createCourse);
+        MockHttpServletResponse second = perform("/course/new", "abc-123", "{\"title\":\"Java\"}", createCourse);
+
+        assertEquals(1, executions.get());
+        assertEquals(201, first.getStatus());
+        assertEquals(201, second.getStatus());
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals("{\"echo\":{\"title\":\"Java\"}}", second.getContentAsString());
+        assertEquals("true", second.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void reused_key_with_a_different_body_should_be_rejected() throws Exception {
+        perform("/task/new/opentext", "abc-123", "{\"statement\":\"Primeira\"}", createCourse);
+        MockHttpServletResponse response = perform("/task/new/opentext", "abc-123", "{\"statement\":\"Outra\"}", createCourse);
+
+        assertEquals(1, executions.get());
+        assertEquals(422, response.getStatus());
+        assertTrue(response.getContentAsString().contains(IdempotencyFilter.HEADER));
+    }
+
+    @Test
+    void server_errors_should_not_be_stored() throws Exception {
+        FilterChain failing = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        };
+
+        perform("/course/new", "abc-123", "{}", failing);
+        perform("/course/new", "abc-123", "{}", failing);
+
+        assertEquals(2, executions.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void requests_without_key_or_outside_creation_paths_should_pass_through() throws Exception {
+        perform("/course/new", null, "{}", createCourse);
+        perform("/course/new", null, "{}", createCourse);
+        perform("/user/new", "abc-123", "{}", createCourse);
+        perform("/user/new", "abc-123", "{}", createCourse);
+
+        assertEquals(4, executions.get());
+    }
+
+    @Test
+    void concurrent_duplicates_should_collapse_onto_one_execution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            ((HttpServletResponse) response).setStatus(201);
+        };
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<MockHttpServletResponse> original = executor.submit(() -> perform("/course/new", "abc-123", "{}", slow));
+            started.await(5, TimeUnit.SECONDS);
+            Future<MockHttpServletResponse> duplicate = executor.submit(() -> perform("/course/new", "abc-123", "{}", slow));
+
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(201, original.get().getStatus());
+            assertEquals(201, duplicate.get().getStatus());
+        }
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void concurrent_duplicates_on_different_instances_should_run_once() throws Exception {
+        // Cada instância tem suas execuções em memória; só a store é compartilhada
+        IdempotencyFilter otherInstance = new IdempotencyFilter(store, IdempotencyConfiguration.IDEMPOTENT_PATHS,
+                Duration.ofMinutes(10), Duration.ofSeconds(5), clock, new ObjectMapper(), 1024);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            ((HttpServletResponse) response).setStatus(201);
+        };
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<MockHttpServletResponse> original = executor.submit(() -> perform("/course/new", "abc-123", "{}", slow));
+            started.await(5, TimeUnit.SECONDS);
+            Future<MockHttpServletResponse> duplicate = executor.submit(() ->
+                    perform(otherInstance, "/course/new", "abc-123", "{}", slow));
+
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(201, original.get().getStatus());
+            assertEquals(201, duplicate.get().getStatus());
+            assertEquals("true", duplicate.get().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        }
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void key_claimed_elsewhere_without_a_stored_response_should_be_rejected_without_executing() throws Exception {
+        IdempotencyFilter impatient = new IdempotencyFilter(store, IdempotencyConfiguration.IDEMPOTENT_PATHS,
+                Duration.ofMinutes(10), Duration.ofMillis(200), clock, new ObjectMapper(), 1024);
+        store.claim("POST /course/new abc-123", "outra", clock.instant().plusSeconds(60));
+
+        MockHttpServletResponse response = perform(impatient, "/course/new", "abc-123", "{}", createCourse);
+
+        assertEquals(409, response.getStatus());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void result_stored_after_the_first_lookup_should_be_replayed_instead_of_executing_again() throws Exception {
+        perform("/course/new", "abc-123", "{}", createCourse);
+        // Simula a corrida: a primeira consulta não vê o resultado que a outra execução acabou de gravar
+        AtomicInteger lookups = new AtomicInteger();
+        IdempotencyStore staleOnce = new IdempotencyStore() {
+            @Override
+            public Optional<StoredResponse> find(String key) {
+                return lookups.getAndIncrement() == 0 ? Optional.empty() : store.find(key);
+            }
+
+            @Override
+            public boolean claim(String key, String fingerprint, Instant claimExpiresAt) {
+                return store.claim(key, fingerprint, claimExpiresAt);
+            }
+
+            @Override
+            public void save(String key, StoredResponse response) {
+                store.save(key, response);
+            }
+
+            @Override
+            public void release(String key) {
+                store.release(key);
+            }
+        };
+        IdempotencyFilter racing = new IdempotencyFilter(staleOnce, IdempotencyConfiguration.IDEMPOTENT_PATHS,
+                Duration.ofMinutes(10), Duration.ofSeconds(5), clock, new ObjectMapper(), 1024);
+
+        MockHttpServletResponse response = perform(racing, "/course/new", "abc-123", "{}", createCourse);
+
+        assertEquals(1, executions.get());
+        assertEquals(201, response.getStatus());
+        assertEquals("true", response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void body_above_the_limit_should_be_rejected_without_executing() throws Exception {
+        MockHttpServletResponse response = perform("/course/new", "abc-123", "\"" + "a".repeat(2048) + "\"", createCourse);
+
+        assertEquals(413, response.getStatus());
+        assertEquals(0, executions.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void cached_body_should_support_non_blocking_reads() throws Exception {
+        FilterChain asyncReader = (request, response) -> {
+            ServletInputStream input = request.getInputStream();
+            ByteArrayOutputStream read = new ByteArrayOutputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (input.isReady() && !input.isFinished()) {
+                        read.write(input.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    executions.incrementAndGet();
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    fail(throwable);
+                }
+            });
+            ((HttpServletResponse) response).setStatus(201);
+            response.getOutputStream().write(read.toByteArray());
+        };
+
+        MockHttpServletResponse response = perform("/course/new", "abc-123", "{\"title\":\"Java\"}", asyncReader);
+
+        assertEquals(1, executions.get());
+        assertEquals("{\"title\":\"Java\"}", response.getContentAsString());
+    }
+
+    private MockHttpServletResponse perform(String path, String key, String body, FilterChain chain) throws Exception {
+        return perform(filter, path, key, body, chain);
+    }
+
+    private MockHttpServletResponse perform(IdempotencyFilter filter, String path, String key, String body,
+                                            FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
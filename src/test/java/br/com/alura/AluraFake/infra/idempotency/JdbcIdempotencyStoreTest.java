@@ -0,0 +1,84 @@
+package br.com.alura.AluraFake.infra.idempotency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcIdempotencyStoreTest {
+
+    private static final String KEY = "POST /course/new abc-123";
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-01-01T10:00:00Z"), ZoneOffset.UTC);
+    private EmbeddedDatabase database;
+    private JdbcIdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("idempotency-" + System.nanoTime() + ";MODE=MySQL")
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("""
+                CREATE TABLE IdempotencyKey (
+                    idempotency_key varchar(300) NOT NULL PRIMARY KEY,
+                    fingerprint char(64) NOT NULL,
+                    status smallint NOT NULL,
+                    content_type varchar(100) NULL,
+                    body blob NULL,
+                    expires_at timestamp(3) NOT NULL
+                )""");
+        store = new JdbcIdempotencyStore(jdbc, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    private StoredResponse created(String fingerprint) {
+        return new StoredResponse(fingerprint, 201, "application/json", "{}".getBytes(StandardCharsets.UTF_8),
+                clock.instant().plusSeconds(600));
+    }
+
+    @Test
+    void only_one_claim_should_win_until_the_response_is_saved() {
+        assertTrue(store.claim(KEY, "abc", clock.instant().plusSeconds(30)));
+        assertFalse(store.claim(KEY, "abc", clock.instant().plusSeconds(30)));
+        assertTrue(store.find(KEY).isEmpty());
+
+        store.save(KEY, created("abc"));
+
+        assertEquals(201, store.find(KEY).orElseThrow().status());
+        assertFalse(store.claim(KEY, "abc", clock.instant().plusSeconds(30)));
+    }
+
+    @Test
+    void released_or_expired_claim_should_let_a_retry_claim_again() {
+        assertTrue(store.claim(KEY, "abc", clock.instant().plusSeconds(30)));
+        store.release(KEY);
+        assertTrue(store.claim(KEY, "abc", clock.instant()));
+
+        // A reserva acima já nasceu expirada, como a de uma instância que caiu no meio da execução
+        assertTrue(store.claim(KEY, "abc", clock.instant().plusSeconds(30)));
+    }
+
+    @Test
+    void saving_without_a_claim_should_keep_the_first_response() {
+        store.save(KEY, created("abc"));
+        store.save(KEY, new StoredResponse("outra", 400, null, null, clock.instant().plusSeconds(600)));
+
+        assertEquals("abc", store.find(KEY).orElseThrow().fingerprint());
+    }
+}
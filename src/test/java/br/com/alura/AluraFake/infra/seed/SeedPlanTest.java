@@ -0,0 +1,65 @@
+package br.com.alura.AluraFake.infra.seed;
+
+import br.com.alura.AluraFake.task.Type;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeedPlanTest {
+
+    private final SeedPlan plan = new SeedPlan(1, 25, 7, 10, 50, 100, 200, 1000, 5000, 10, 2);
+
+    @Test
+    void typeAt__should_cover_every_type_and_match_course_counters() {
+        Map<Type, Integer> counts = new EnumMap<>(Type.class);
+        for (int order = 1; order <= plan.tasksPerCourse(); order++) {
+            counts.merge(plan.typeAt(order), 1, Integer::sum);
+        }
+
+        assertThat(counts).containsOnlyKeys(Type.values());
+        for (Type type : Type.values()) {
+            assertThat(plan.countOf(type)).isEqualTo(counts.get(type));
+        }
+    }
+
+    @Test
+    void ids__should_not_overlap_between_courses_or_tasks() {
+        Set<Long> taskIds = new HashSet<>();
+        Set<Long> optionIds = new HashSet<>();
+        for (int c = 0; c < plan.courses(); c++) {
+            for (int order = 1; order <= plan.tasksPerCourse(); order++) {
+                long taskId = plan.taskIdOf(c, order);
+                assertThat(taskIds.add(taskId)).isTrue();
+                for (int slot = 0; slot < SeedPlan.OPTIONS_PER_TASK; slot++) {
+                    assertThat(optionIds.add(plan.optionIdOf(taskId, slot))).isTrue();
+                }
+            }
+        }
+
+        assertThat(taskIds).allMatch(id -> id >= plan.taskBase() && id < plan.taskBase() + plan.tasks());
+        assertThat(optionIds).allMatch(id -> id >= plan.optionBase() && id < plan.optionBase() + plan.optionSlots());
+    }
+
+    @Test
+    void instructorIdOf__should_point_to_an_instructor() {
+        for (int c = 0; c < plan.courses(); c++) {
+            int userIndex = (int) (plan.instructorIdOf(c) - plan.userBase());
+            assertThat(userIndex).isBetween(0, plan.users() - 1);
+            assertThat(plan.isInstructor(userIndex)).isTrue();
+        }
+    }
+
+    @Test
+    void isPublished__should_require_all_types() {
+        SeedPlan tooShort = new SeedPlan(1, 10, 10, 2, 100, 1, 1, 1, 1, 10, 10);
+
+        assertThat(tooShort.isPublished(0)).isFalse();
+        assertThat(plan.isPublished(0)).isTrue();
+        assertThat(plan.isPublished(60)).isFalse();
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.alura.AluraFake.infra.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlBudgetFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlBudgetFilter filter = new SqlBudgetFilter(meterRegistry, 3, 3);
+    private final SqlStatementCounter inspector = new SqlStatementCounter();
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/instructor/7/courses");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/instructor/{id}/courses");
+        return request;
+    }
+
+    private FilterChain executing(String... statements) {
+        return (request, response) -> {
+            for (String sql : statements) {
+                inspector.inspect(sql);
+            }
+        };
+    }
+
+    @Test
+    void should_record_statements_per_route() throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(), executing("select 1", "select 2"));
+
+        assertEquals(2.0, meterRegistry.get("alurafake.http.sql.statements")
+                .tag("uri", "/instructor/{id}/courses").summary().totalAmount());
+        assertNull(meterRegistry.find("alurafake.http.sql.budget.exceeded").counter());
+        assertNull(meterRegistry.find("alurafake.http.sql.repeated").counter());
+    }
+
+    @Test
+    void should_count_requests_over_budget() throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(), executing("select 1", "select 2", "select 3", "select 4"));
+
+        assertEquals(1.0, meterRegistry.get("alurafake.http.sql.budget.exceeded").counter().count());
+        assertNull(meterRegistry.find("alurafake.http.sql.repeated").counter());
+    }
+
+    @Test
+    void should_flag_repeated_statement_as_possible_n_plus_one() throws Exception {
+        String perRow = "select c.id from Course c where c.instructor_id=?";
+
+        filter.doFilter(request(), new MockHttpServletResponse(), executing(perRow, perRow, perRow));
+
+        assertEquals(1.0, meterRegistry.get("alurafake.http.sql.repeated").counter().count());
+    }
+
+    @Test
+    void should_not_count_statements_outside_a_request() throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(), executing("select 1"));
+        inspector.inspect("select 2");
+
+        assertEquals(1.0, meterRegistry.get("alurafake.http.sql.statements").summary().totalAmount());
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.alura.AluraFake.infra.sql;
+
+import jakarta.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Conta os comandos SQL que um trecho de teste dispara, usando o mesmo inspector registrado no Hibernate.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {}
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    public static int countStatements(ThrowingRunnable action) throws Exception {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            action.run();
+            return scope.getCount();
+        }
+    }
+
+    /**
+     * Roda a ação com o contexto de persistência limpo, para que cada leitura vá de fato ao banco.
+     */
+    public static void assertStatementCount(int expected, EntityManager entityManager, ThrowingRunnable action)
+            throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(countStatements(action)).as("comandos SQL executados").isEqualTo(expected);
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.alura.AluraFake.infra.sql;
+
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.option.Option;
+import br.com.alura.AluraFake.task.Task;
+import br.com.alura.AluraFake.task.TaskRepository;
+import br.com.alura.AluraFake.task.Type;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static br.com.alura.AluraFake.infra.sql.SqlStatementAssertions.assertStatementCount;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fixa o número de comandos SQL das consultas que atendem os endpoints de leitura, para que uma
+ * regressão (associação EAGER nova, N+1) quebre o build em vez de aparecer só em produção.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class SqlStatementBudgetTest {
+
+    // Mesmo espaçamento de TaskRank.GAP, que é interno ao pacote task
+    private static final long RANK_GAP = 1L << 32;
+
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private User instructor;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        instructor = new User("Paulo", "paulo-budget@alura.com.br", Role.INSTRUCTOR);
+        entityManager.persist(instructor);
+        course = new Course("Java", "Curso de Java", instructor);
+        entityManager.persist(course);
+        for (int i = 1; i <= 3; i++) {
+            entityManager.persist(new Course("Curso " + i, "Descrição " + i, instructor));
+            taskRepository.save(new Task("Atividade número " + i, Type.OPEN_TEXT, i * RANK_GAP, course,
+                    List.of(new Option("Resposta " + i, true))));
+        }
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+    }
+
+    @Test
+    void course_page__should_be_a_single_projection_query() throws Exception {
+        assertStatementCount(1, entityManager, () ->
+                assertThat(courseRepository.findPageAfter(0L, Limit.of(10))).hasSizeGreaterThanOrEqualTo(4));
+    }
+
+    @Test
+    void instructor_report__should_be_a_single_query_regardless_of_course_count() throws Exception {
+        assertStatementCount(1, entityManager, () ->
+                assertThat(courseRepository.findInstructorReportRows(instructor.getId())).hasSize(4));
+    }
+
+    @Test
+    void loading_a_task__should_not_load_its_course() throws Exception {
+        long taskId = taskRepository.findAll().get(0).getId();
+
+        assertStatementCount(1, entityManager, () -> entityManager.find(Task.class, taskId));
+    }
+
+    @Test
+    void scope__should_flag_statement_repeated_per_row() throws Exception {
+        List<Long> courseIds = courseRepository.findByInstructor(instructor).stream().map(Course::getId).toList();
+        entityManager.flush();
+        entityManager.clear();
+
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            for (Long courseId : courseIds) {
+                taskRepository.findAllRanksByCourseId(courseId);
+            }
+
+            assertThat(scope.getCount()).isEqualTo(courseIds.size());
+            assertThat(scope.findRepeatedStatement(courseIds.size())).isPresent();
+            assertThat(scope.findRepeatedStatement(courseIds.size() + 1)).isEmpty();
+        }
+    }
+}
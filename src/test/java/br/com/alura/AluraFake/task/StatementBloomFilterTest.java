@@ -0,0 +1,65 @@
+package br.com.alura.AluraFake.task;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StatementBloomFilterTest {
+
+    private TaskRepository taskRepository;
+    private StatementBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        filter = new StatementBloomFilter(taskRepository, mock(PlatformTransactionManager.class), 1000, 0.01);
+    }
+
+    @Test
+    void mightContain__should_answer_maybe_before_warm_up() {
+        assertTrue(filter.mightContain(StatementHash.of("O que aprendemos hoje?")));
+    }
+
+    @Test
+    void rebuild__should_load_existing_statements() {
+        when(taskRepository.streamAllStatementHashes()).thenReturn(Stream.of(StatementHash.of("O que aprendemos hoje?")));
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain(StatementHash.of("o que aprendemos hoje? ")));
+        assertFalse(filter.mightContain(StatementHash.of("Quais sao frameworks Java?")));
+    }
+
+    @Test
+    void put__should_be_visible_after_warm_up() {
+        when(taskRepository.streamAllStatementHashes()).thenReturn(Stream.empty());
+        filter.rebuild();
+
+        filter.put(StatementHash.of("Quais sao frameworks Java?"));
+
+        assertTrue(filter.mightContain(StatementHash.of("Quais sao frameworks Java?")));
+    }
+
+    @Test
+    void rebuild__should_keep_statements_of_transactions_still_in_progress() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Inserido antes da reconstrução, mas ainda não commitado: não aparece na leitura da tabela
+            filter.put(StatementHash.of("Qual linguagem aprendemos hoje?"));
+            when(taskRepository.streamAllStatementHashes()).thenReturn(Stream.empty());
+
+            filter.rebuild();
+
+            assertTrue(filter.mightContain(StatementHash.of("Qual linguagem aprendemos hoje?")));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserRepository;
+import br.com.alura.AluraFake.util.PessimisticLockRetry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dispara criações de atividades em paralelo e confere a integridade da ordem ao final.
+ * Roda apenas com {@code mvn test -Pperf}.
+ */
+@Tag("perf")
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskConcurrencyStressTest {
+
+    private static final int THREADS = 16;
+    private static final int TASKS_PER_COURSE = 200;
+
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PessimisticLockRetry lockRetry;
+
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final List<Course> courses = new ArrayList<>();
+    private User instructor;
+
+    @AfterEach
+    void tearDown() {
+        courseRepository.deleteAll(courses);
+        if (instructor != null) {
+            userRepository.delete(instructor);
+        }
+    }
+
+    @Test
+    void createTasks__parallel_inserts_into_one_course_should_keep_a_dense_order() throws Exception {
+        List<Course> target = createCourses(1);
+
+        runParallelInserts("um curso", target, TASKS_PER_COURSE);
+
+        assertOrderIntegrity(target.get(0), TASKS_PER_COURSE);
+    }
+
+    @Test
+    void createTasks__parallel_inserts_into_many_courses_should_keep_a_dense_order() throws Exception {
+        List<Course> target = createCourses(THREADS);
+
+        runParallelInserts("vários cursos", target, TASKS_PER_COURSE / 4);
+
+        for (Course course : target) {
+            assertOrderIntegrity(course, TASKS_PER_COURSE / 4);
+        }
+    }
+
+    private List<Course> createCourses(int count) {
+        instructor = userRepository.save(new User("Instrutor", "stress-" + runId + "@alura.com.br", Role.INSTRUCTOR));
+        List<Course> created = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            created.add(courseRepository.save(new Course("Stress " + i, "Teste de concorrencia", instructor)));
+        }
+        courses.addAll(created);
+        return created;
+    }
+
+    private void runParallelInserts(String scenario, List<Course> target, int tasksPerCourse) throws Exception {
+        List<AtomicInteger> completed = target.stream().map(course -> new AtomicInteger()).toList();
+        AtomicInteger sequence = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < target.size() * tasksPerCourse; i++) {
+                int courseIndex = i % target.size();
+                futures.add(executor.submit(() -> {
+                    AtomicInteger done = completed.get(courseIndex);
+                    NewTaskDTO newTask = new NewTaskDTO();
+                    newTask.setCourseId(target.get(courseIndex).getId());
+                    newTask.setStatement("Stress " + runId + " #" + sequence.incrementAndGet());
+                    // Qualquer ordem entre 1 e (concluídas + 1) é válida, mesmo com outras inserções em andamento
+                    newTask.setOrder(ThreadLocalRandom.current().nextInt(1, done.get() + 2));
+                    lockRetry.execute(() -> taskService.createOpenTextTask(newTask));
+                    done.incrementAndGet();
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.printf("[stress] %s: %d inserções em %.2fs (%.1f inserções/s)%n",
+                scenario, futures.size(), seconds, futures.size() / seconds);
+    }
+
+    private void assertOrderIntegrity(Course course, int expectedTasks) {
+        List<Long> orders = taskRepository.findAllOrdersByCourseId(course.getId());
+        List<Long> ranks = taskRepository.findAllRanksByCourseId(course.getId());
+
+        assertThat(orders).containsExactlyElementsOf(LongStream.rangeClosed(1, expectedTasks).boxed().toList());
+        assertThat(new HashSet<>(ranks)).hasSize(expectedTasks);
+    }
+}
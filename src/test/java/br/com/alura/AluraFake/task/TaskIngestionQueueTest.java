@@ -0,0 +1,153 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.util.PessimisticLockRetry;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskIngestionQueueTest {
+
+    @Mock
+    private TaskService taskService;
+
+    private TaskIngestionQueue ingestionQueue;
+
+    @BeforeEach
+    void setUp() {
+        ingestionQueue = new TaskIngestionQueue(taskService, new PessimisticLockRetry(3, 0), 2, 200, 60, 3);
+    }
+
+    @Test
+    void drain__should_create_tasks_of_the_same_course_in_a_single_batch() {
+        List<Task> created = List.of(taskWithId(100L), taskWithId(101L));
+        when(taskService.createTasks(eq(1L), anyList())).thenReturn(created);
+
+        TaskTicket first = ingestionQueue.submit(Type.OPEN_TEXT, newTask(1L, "Primeira atividade", 1)).orElseThrow();
+        TaskTicket second = ingestionQueue.submit(Type.OPEN_TEXT, newTask(1L, "Segunda atividade", 2)).orElseThrow();
+
+        assertEquals(TaskTicket.Status.QUEUED, first.getStatus());
+        assertEquals(2, ingestionQueue.drain());
+
+        verify(taskService, times(1)).createTasks(eq(1L), argThat(items -> items.size() == 2));
+        assertEquals(TaskTicket.Status.CREATED, first.getStatus());
+        assertEquals(100L, first.getTaskId());
+        assertEquals(101L, second.getTaskId());
+        assertSame(second, ingestionQueue.findTicket(second.getId()).orElseThrow());
+    }
+
+    @Test
+    void submit__should_refuse_when_the_queue_is_full() {
+        ingestionQueue.submit(Type.OPEN_TEXT, newTask(1L, "Primeira atividade", 1));
+        ingestionQueue.submit(Type.OPEN_TEXT, newTask(1L, "Segunda atividade", 2));
+
+        assertTrue(ingestionQueue.submit(Type.OPEN_TEXT, newTask(1L, "Terceira atividade", 3)).isEmpty());
+        assertEquals(2, ingestionQueue.getQueueSize());
+    }
+
+    @Test
+    void submit__should_validate_options_before_queueing() {
+        NewTaskDTO invalid = newTask(1L, "Escolha única", 1);
+        doThrow(new ValidationException("options|Deve haver exatamente uma opção correta."))
+                .when(taskService).validateTaskOptions(Type.SINGLE_CHOICE, invalid);
+
+        assertThrows(ValidationException.class, () -> ingestionQueue.submit(Type.SINGLE_CHOICE, invalid));
+        assertEquals(0, ingestionQueue.getQueueSize());
+    }
+
+    @Test
+    void drain__should_fall_back_to_one_task_at_a_time_when_the_batch_is_rejected() {
+        Task createdTask = taskWithId(100L);
+        when(taskService.createTasks(eq(1L), argThat(items -> items != null && items.size() == 2)))
+                .thenThrow(new ValidationException("tasks[1].order|A próxima ordem esperada é 2"));
+        when(taskService.createTasks(eq(1L), argThat(items -> items != null && items.size() == 1
+                && items.get(0).getOrder() == 1))).thenReturn(List.of(createdTask));
+        when(taskService.createTasks(eq(1L), argThat(items -> items != null && items.size() == 1
+                && items.get(0).getOrder() == 5)))
+                .thenThrow(new ValidationException("tasks[0].order|A próxima ordem esperada é 2"));
+
+        TaskTicket valid = ingestionQueue.submit(Type.OPEN_TEXT, newTask(1L, "Atividade válida", 1)).orElseThrow();
+        TaskTicket invalid = ingestionQueue.submit(Type.OPEN_TEXT, newTask(1L, "Atividade fora de ordem", 5)).orElseThrow();
+
+        ingestionQueue.drain();
+
+        assertEquals(TaskTicket.Status.CREATED, valid.getStatus());
+        assertEquals(TaskTicket.Status.REJECTED, invalid.getStatus());
+        assertEquals("order", invalid.getError().getField());
+        assertEquals("A próxima ordem esperada é 2", invalid.getError().getMessage());
+    }
+
+    @Test
+    void drain__should_batch_each_course_separately() {
+        Task firstCourseTask = taskWithId(100L);
+        Task secondCourseTask = taskWithId(200L);
+        when(taskService.createTasks(eq(1L), anyList())).thenReturn(List.of(firstCourseTask));
+        when(taskService.createTasks(eq(2L), anyList())).thenReturn(List.of(secondCourseTask));
+
+        TaskTicket first = ingestionQueue.submit(Type.OPEN_TEXT, newTask(1L, "Curso um", 1)).orElseThrow();
+        TaskTicket second = ingestionQueue.submit(Type.OPEN_TEXT, newTask(2L, "Curso dois", 1)).orElseThrow();
+
+        ingestionQueue.drain();
+
+        assertEquals(100L, first.getTaskId());
+        assertEquals(200L, second.getTaskId());
+    }
+
+    @Test
+    void drain__should_keep_only_the_most_recent_completed_tickets() {
+        List<Task> firstBatch = List.of(taskWithId(100L), taskWithId(101L));
+        List<Task> secondBatch = List.of(taskWithId(102L), taskWithId(103L));
+        when(taskService.createTasks(eq(1L), anyList())).thenReturn(firstBatch).thenReturn(secondBatch);
+
+        TaskTicket first = ingestionQueue.submit(Type.OPEN_TEXT, newTask(1L, "Primeira atividade", 1)).orElseThrow();
+        TaskTicket second = ingestionQueue.submit(Type.OPEN_TEXT, newTask(1L, "Segunda atividade", 2)).orElseThrow();
+        ingestionQueue.drain();
+        TaskTicket third = ingestionQueue.submit(Type.OPEN_TEXT, newTask(1L, "Terceira atividade", 3)).orElseThrow();
+        TaskTicket fourth = ingestionQueue.submit(Type.OPEN_TEXT, newTask(1L, "Quarta atividade", 4)).orElseThrow();
+        ingestionQueue.drain();
+
+        assertTrue(ingestionQueue.findTicket(first.getId()).isEmpty());
+        assertSame(second, ingestionQueue.findTicket(second.getId()).orElseThrow());
+        assertSame(third, ingestionQueue.findTicket(third.getId()).orElseThrow());
+        assertSame(fourth, ingestionQueue.findTicket(fourth.getId()).orElseThrow());
+    }
+
+    @Test
+    void drain__should_purge_expired_tickets_without_waiting_for_an_idle_queue() {
+        TaskIngestionQueue noRetention = new TaskIngestionQueue(taskService, new PessimisticLockRetry(3, 0), 2, 200, 0, 100);
+        List<Task> created = List.of(taskWithId(100L));
+        when(taskService.createTasks(eq(1L), anyList())).thenReturn(created);
+
+        TaskTicket ticket = noRetention.submit(Type.OPEN_TEXT, newTask(1L, "Primeira atividade", 1)).orElseThrow();
+        noRetention.drain();
+        noRetention.submit(Type.OPEN_TEXT, newTask(1L, "Segunda atividade", 2)).orElseThrow();
+        noRetention.drain();
+
+        assertEquals(TaskTicket.Status.CREATED, ticket.getStatus());
+        assertTrue(noRetention.findTicket(ticket.getId()).isEmpty());
+    }
+
+    private static NewTaskDTO newTask(Long courseId, String statement, int order) {
+        NewTaskDTO newTaskDTO = new NewTaskDTO();
+        newTaskDTO.setCourseId(courseId);
+        newTaskDTO.setStatement(statement);
+        newTaskDTO.setOrder(order);
+        return newTaskDTO;
+    }
+
+    private static Task taskWithId(long id) {
+        Task task = mock(Task.class);
+        when(task.getId()).thenReturn(id);
+        return task;
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.option.Option;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static br.com.alura.AluraFake.infra.sql.SqlStatementAssertions.assertStatementCount;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(TaskQueryService.class)
+class TaskQueryServiceTest {
+
+    @Autowired
+    private TaskQueryService taskQueryService;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Course course;
+    private long rankOffset;
+
+    @BeforeEach
+    void setUp() {
+        User instructor = new User("Paulo", "paulo-tasks@alura.com.br", Role.INSTRUCTOR);
+        entityManager.persist(instructor);
+        course = new Course("Java", "Curso de Java", instructor);
+        entityManager.persist(course);
+    }
+
+    private void addTasks(int count) {
+        for (int i = 1; i <= count; i++) {
+            // Insere em ordem inversa para garantir que a listagem segue o rank, e não o ID
+            long rank = rankOffset + (count - i + 1) * TaskRank.GAP;
+            taskRepository.save(new Task("Atividade de rank " + rank, Type.SINGLE_CHOICE, rank, course, List.of(
+                    new Option("Certa " + i, true),
+                    new Option("Errada " + i, false))));
+        }
+        rankOffset += count * TaskRank.GAP;
+    }
+
+    @Test
+    void listCourseTasks__should_return_tasks_in_order_with_their_options() {
+        addTasks(3);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TaskItemDTO> tasks = taskQueryService.listCourseTasks(course.getId(), EnumSet.allOf(TaskField.class));
+
+        assertThat(tasks).extracting(TaskItemDTO::getOrder).containsExactly(1, 2, 3);
+        assertThat(tasks).extracting(TaskItemDTO::getStatement).containsExactly(
+                "Atividade de rank " + TaskRank.GAP,
+                "Atividade de rank " + 2 * TaskRank.GAP,
+                "Atividade de rank " + 3 * TaskRank.GAP);
+        assertThat(tasks.get(0).getOptions()).extracting(TaskOptionItemDTO::getOption)
+                .containsExactly("Certa 3", "Errada 3");
+    }
+
+    @Test
+    void listCourseTasks__should_use_two_queries_regardless_of_task_count() throws Exception {
+        addTasks(2);
+        assertStatementCount(2, entityManager, () ->
+                taskQueryService.listCourseTasks(course.getId(), EnumSet.allOf(TaskField.class)));
+
+        addTasks(10);
+        assertStatementCount(2, entityManager, () ->
+                assertThat(taskQueryService.listCourseTasks(course.getId(), EnumSet.allOf(TaskField.class))).hasSize(12));
+    }
+
+    @Test
+    void listCourseTasks__should_skip_options_query_when_not_requested() throws Exception {
+        addTasks(3);
+
+        assertStatementCount(1, entityManager, () -> {
+            List<TaskItemDTO> tasks = taskQueryService.listCourseTasks(course.getId(), EnumSet.noneOf(TaskField.class));
+            assertThat(tasks).allSatisfy(task -> {
+                assertThat(task.getStatement()).isNull();
+                assertThat(task.getOptions()).isNull();
+            });
+        });
+    }
+
+    @Test
+    void listCourseTasks__should_omit_option_text_when_not_requested() {
+        addTasks(1);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TaskItemDTO> tasks = taskQueryService.listCourseTasks(course.getId(), TaskField.parse("options"));
+
+        assertThat(tasks.get(0).getOptions()).hasSize(2)
+                .allSatisfy(option -> assertThat(option.getOption()).isNull());
+    }
+
+    @Test
+    void listCourseTasks__should_return_empty_list_for_course_without_tasks() {
+        assertThat(taskQueryService.listCourseTasks(course.getId(), EnumSet.allOf(TaskField.class))).isEmpty();
+    }
+
+    @Test
+    void listCourseTasks__should_fail_when_course_does_not_exist() {
+        assertThatThrownBy(() -> taskQueryService.listCourseTasks(-1L, EnumSet.allOf(TaskField.class)))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void parse__should_reject_unknown_field() {
+        assertThatThrownBy(() -> TaskField.parse("statement,author"))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("fields|Campo desconhecido: author");
+        assertThat(TaskField.parse("options.text")).containsExactlyInAnyOrder(TaskField.OPTIONS, TaskField.OPTION_TEXT);
+    }
+}
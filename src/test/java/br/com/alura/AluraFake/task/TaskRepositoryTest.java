@@ -0,0 +1,64 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.option.Option;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class TaskRepositoryTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        User instructor = entityManager.persist(new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+        course = entityManager.persist(new Course("Java", "Curso de Java", instructor));
+
+        // Reserva os blocos de IDs de Task e Option antes da medição
+        taskRepository.save(new Task("Atividade de aquecimento", Type.OPEN_TEXT, TaskRank.GAP, course,
+                List.of(new Option("Aquecimento", true))));
+        entityManager.flush();
+    }
+
+    @Test
+    void save__should_batch_option_inserts_of_a_multiple_choice_task() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        taskRepository.save(new Task("Quais sao frameworks Java?", Type.MULTIPLE_CHOICE, 2 * TaskRank.GAP, course, List.of(
+                new Option("Spring", true),
+                new Option("Hibernate", true),
+                new Option("Quarkus", true),
+                new Option("Django", false),
+                new Option("Rails", false)
+        )));
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(6);
+        // Um INSERT para a Task e um único INSERT em lote para as cinco Options
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+}
@@ -0,0 +1,78 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.option.Option;
+import br.com.alura.AluraFake.util.ErrorItemDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskRuleSetTest {
+
+    private NewTaskDTO task(String statement, Option... options) {
+        NewTaskDTO newTaskDTO = new NewTaskDTO();
+        newTaskDTO.setStatement(statement);
+        newTaskDTO.setOrder(1);
+        newTaskDTO.setOptions(new ArrayList<>(List.of(options)));
+        return newTaskDTO;
+    }
+
+    private List<String> messages(Type type, NewTaskDTO newTaskDTO) {
+        return TaskRuleSet.forType(type).validate(newTaskDTO).stream().map(ErrorItemDTO::getMessage).toList();
+    }
+
+    @Test
+    void valid_tasks__should_have_no_errors() {
+        assertEquals(List.of(), TaskRuleSet.forType(Type.SINGLE_CHOICE).validate(task("Qual linguagem?",
+                new Option("Java", true), new Option("Python", false))));
+        assertEquals(List.of(), TaskRuleSet.forType(Type.MULTIPLE_CHOICE).validate(task("Quais frameworks?",
+                new Option("Spring", true), new Option("Hibernate", true), new Option("Django", false))));
+        assertEquals(List.of(), TaskRuleSet.forType(Type.OPEN_TEXT).validate(task("O que achou?")));
+    }
+
+    @Test
+    void single_choice__should_report_every_broken_rule_at_once() {
+        NewTaskDTO newTaskDTO = task("Java", new Option(" Java ", false));
+
+        assertEquals(List.of(
+                "Deve ter entre 2 e 5 alternativas",
+                "A alternativa não pode ter o mesmo título do enunciado",
+                "Deve conter apenas uma alternativa correta"), messages(Type.SINGLE_CHOICE, newTaskDTO));
+    }
+
+    @Test
+    void multiple_choice__should_report_every_broken_rule_at_once() {
+        NewTaskDTO newTaskDTO = task("Quais frameworks?",
+                new Option("Spring", true), new Option("  SPRING", false));
+
+        assertEquals(List.of(
+                "Deve ter entre 3 e 5 alternativas",
+                "As alternativas não podem possuir o mesmo título",
+                "Deve conter pelo menos duas alternativas corretas."), messages(Type.MULTIPLE_CHOICE, newTaskDTO));
+    }
+
+    @Test
+    void duplicate_check__should_ignore_case_and_surrounding_spaces_only() {
+        assertTrue(messages(Type.SINGLE_CHOICE, task("Qual?", new Option("Java", true), new Option(" jAVA\t", false)))
+                .contains("As alternativas não podem possuir o mesmo título"));
+        assertFalse(messages(Type.SINGLE_CHOICE, task("Qual?", new Option("Java", true), new Option("Java 21", false)))
+                .contains("As alternativas não podem possuir o mesmo título"));
+    }
+
+    @Test
+    void statement_check__should_stay_case_sensitive() {
+        assertEquals(List.of(), messages(Type.SINGLE_CHOICE, task("java", new Option("Java", true), new Option("Kotlin", false))));
+    }
+
+    @Test
+    void missing_options_and_text__should_be_reported() {
+        NewTaskDTO withoutOptions = task("Qual?");
+        withoutOptions.setOptions(null);
+        assertEquals(List.of(TaskRuleSet.MISSING_OPTIONS), TaskRuleSet.forType(Type.SINGLE_CHOICE).validate(withoutOptions));
+
+        assertTrue(TaskRuleSet.forType(Type.SINGLE_CHOICE).validate(task("Qual?", new Option(null, true), new Option("   ", false)))
+                .contains(TaskRuleSet.MISSING_TEXT));
+    }
+}
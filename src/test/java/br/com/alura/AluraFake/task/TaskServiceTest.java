@@ -2,24 +2,36 @@ package br.com.alura.AluraFake.task;
 
 import br.com.alura.AluraFake.course.Course;
 import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.course.InstructorReportCache;
 import br.com.alura.AluraFake.option.Option;
 import br.com.alura.AluraFake.user.Role;
 import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.util.ErrorItemDTO;
+import br.com.alura.AluraFake.util.ValidationErrorsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.ValidationException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.util.Assert;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -35,6 +47,18 @@ public class TaskServiceTest {
     @Mock
     private CourseRepository courseRepository;
 
+    @Mock
+    private StatementBloomFilter statementFilter;
+
+    @Mock
+    private InstructorReportCache reportCache;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private EntityManager entityManager;
+
     private Course validCourse;
     private Long courseId;
     private NewTaskDTO openTextDTO;
@@ -47,9 +71,9 @@ public class TaskServiceTest {
         validCourse = new Course("Curso Teste", "Descricao", instructor);
         courseId = validCourse.getId();
 
-        lenient().when(courseRepository.findById(courseId)).thenReturn(Optional.of(validCourse));
-        lenient().when(taskRepository.existsByStatement(anyString())).thenReturn(false);
-        lenient().when(taskRepository.findMaxOrderForCourse(courseId)).thenReturn(null);
+        lenient().when(courseRepository.findByIdForUpdate(courseId)).thenReturn(Optional.of(validCourse));
+        lenient().when(statementFilter.mightContain(anyString())).thenReturn(true);
+        lenient().when(taskRepository.existsByStatementHash(anyString())).thenReturn(false);
 
         // -- OPEN TEXT --
         openTextDTO = new NewTaskDTO();
@@ -102,7 +126,9 @@ public class TaskServiceTest {
         @DisplayName("Ordenacao: Deve falhar em qualquer tipo se a continuidade da ordem for quebrada (Gaps).")
         void shouldFailIfOrderContinuityIsBrokenForAnyType(){
             openTextDTO.setOrder(5);
-            when(taskRepository.findMaxOrderForCourse(courseId)).thenReturn(3);
+            validCourse.registerTask(Type.OPEN_TEXT);
+            validCourse.registerTask(Type.OPEN_TEXT);
+            validCourse.registerTask(Type.OPEN_TEXT);
             ValidationException exception = assertThrows(ValidationException.class, () ->
                     taskService.createOpenTextTask(openTextDTO));
 
@@ -113,7 +139,7 @@ public class TaskServiceTest {
         @Test
         @DisplayName("Validacao Base: Deve falhar em qualquer tipo se o statement já existir.")
         void shouldFailIfStatementAlreadyExistsForAnyType(){
-            when(taskRepository.existsByStatement(anyString())).thenReturn(true);
+            when(taskRepository.existsByStatementHash(anyString())).thenReturn(true);
 
             ValidationException exception = assertThrows(ValidationException.class, () ->
                     taskService.createSingleChoiceTask(singleChoiceDTO)
@@ -122,6 +148,41 @@ public class TaskServiceTest {
             assertTrue(exception.getMessage().contains("Ja existe uma atividade com este titulo"));
             verify(taskRepository, never()).save(any(Task.class));
         }
+
+        @Test
+        @DisplayName("Validacao Base: Não deve consultar o banco quando o filtro garante que o enunciado é novo.")
+        void shouldSkipStatementLookupWhenFilterRulesItOut() {
+            when(statementFilter.mightContain(anyString())).thenReturn(false);
+
+            taskService.createOpenTextTask(openTextDTO);
+
+            verify(taskRepository, never()).existsByStatementHash(anyString());
+            verify(statementFilter).put(StatementHash.of(openTextDTO.getStatement()));
+        }
+
+        @Test
+        @DisplayName("Validacao Base: Deve rejeitar o enunciado gravado por outra instância que o filtro não conhece.")
+        void shouldMapStatementConstraintViolationToValidationError() {
+            when(statementFilter.mightContain(anyString())).thenReturn(false);
+            doThrow(new DataIntegrityViolationException("duplicado", new ConstraintViolationException(
+                    "Duplicate entry", null, "Task.UC_Task_StatementHash"))).when(taskRepository).flush();
+
+            ValidationException exception = assertThrows(ValidationException.class, () ->
+                    taskService.createOpenTextTask(openTextDTO));
+
+            assertEquals("statement|Ja existe uma atividade com este titulo", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("Validacao Base: Não deve transformar outras violações de integridade em erro de enunciado.")
+        void shouldRethrowOtherConstraintViolations() {
+            DataIntegrityViolationException violation = new DataIntegrityViolationException("duplicado",
+                    new ConstraintViolationException("Duplicate entry", null, "Task.UC_Task_Course_Rank"));
+            doThrow(violation).when(taskRepository).flush();
+
+            assertSame(violation, assertThrows(DataIntegrityViolationException.class, () ->
+                    taskService.createOpenTextTask(openTextDTO)));
+        }
     }
 
     @Nested
@@ -240,4 +301,211 @@ public class TaskServiceTest {
             assertTrue(exception.getMessage().contains("As alternativas não podem possuir o mesmo título"));
         }
     }
+
+    @Nested
+    @DisplayName("Importação em Lote")
+    class BulkImportTests {
+
+        private NewBulkTaskItemDTO bulkItem(Type type, NewTaskDTO newTaskDTO) {
+            NewBulkTaskItemDTO item = new NewBulkTaskItemDTO();
+            item.setType(type);
+            item.setStatement(newTaskDTO.getStatement());
+            item.setOrder(newTaskDTO.getOrder());
+            item.setOptions(newTaskDTO.getOptions());
+            return item;
+        }
+
+        @Test
+        @DisplayName("Sucesso: Deve validar em memória e persistir todas as atividades com uma única busca do curso.")
+        void shouldImportMixedTasksWithSingleCourseLookup() {
+            singleChoiceDTO.setOrder(2);
+            multipleChoiceDTO.setOrder(3);
+            when(taskRepository.findStatementsByHashIn(anySet())).thenReturn(List.of());
+            when(taskRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+            List<Task> created = taskService.createTasks(courseId, List.of(
+                    bulkItem(Type.OPEN_TEXT, openTextDTO),
+                    bulkItem(Type.SINGLE_CHOICE, singleChoiceDTO),
+                    bulkItem(Type.MULTIPLE_CHOICE, multipleChoiceDTO)
+            ));
+
+            assertEquals(List.of(TaskRank.GAP, 2 * TaskRank.GAP, 3 * TaskRank.GAP),
+                    created.stream().map(Task::getRank).toList());
+            assertEquals(3, validCourse.getTaskCount());
+            assertEquals(1, validCourse.getTaskCount(Type.MULTIPLE_CHOICE));
+            verify(courseRepository, times(1)).findByIdForUpdate(courseId);
+            verify(taskRepository, times(1)).saveAll(anyList());
+            verify(taskRepository, never()).save(any(Task.class));
+        }
+
+        @Test
+        @DisplayName("Ordenacao: Deve intercalar o lote sem reescrever as atividades existentes.")
+        void shouldInterleaveBatchWithoutRewritingExistingTasks() {
+            validCourse.registerTask(Type.OPEN_TEXT);
+            validCourse.registerTask(Type.OPEN_TEXT);
+            when(taskRepository.findAllRanksByCourseId(courseId)).thenReturn(List.of(TaskRank.GAP, 2 * TaskRank.GAP));
+            when(taskRepository.findStatementsByHashIn(anySet())).thenReturn(List.of());
+            when(taskRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+            singleChoiceDTO.setOrder(2);
+            List<Task> created = taskService.createTasks(courseId, List.of(
+                    bulkItem(Type.OPEN_TEXT, openTextDTO),
+                    bulkItem(Type.SINGLE_CHOICE, singleChoiceDTO)
+            ));
+
+            assertEquals(List.of(TaskRank.GAP / 2, 3 * TaskRank.GAP / 4),
+                    created.stream().map(Task::getRank).toList());
+            verify(taskRepository, never()).detachRanks(any());
+            verify(entityManager, never()).refresh(any());
+        }
+
+        @Test
+        @DisplayName("Rebalanceamento: Deve recarregar as atividades já criadas quando o lote redistribui os ranks.")
+        void shouldRefreshCreatedTasksWhenBatchRebalances() {
+            validCourse.registerTask(Type.OPEN_TEXT);
+            validCourse.registerTask(Type.OPEN_TEXT);
+            when(taskRepository.findAllRanksByCourseId(courseId))
+                    .thenReturn(List.of(7L, 8L))
+                    .thenReturn(List.of(TaskRank.GAP, 2 * TaskRank.GAP, 3 * TaskRank.GAP));
+            when(taskRepository.findStatementsByHashIn(anySet())).thenReturn(List.of());
+            when(taskRepository.saveAll(anyList())).thenAnswer(i -> List.copyOf(i.getArgument(0)));
+
+            singleChoiceDTO.setOrder(3);
+            List<Task> created = taskService.createTasks(courseId, List.of(
+                    bulkItem(Type.OPEN_TEXT, openTextDTO),
+                    bulkItem(Type.SINGLE_CHOICE, singleChoiceDTO)
+            ));
+
+            verify(taskRepository).detachRanks(courseId);
+            verify(entityManager).refresh(created.get(0));
+            verify(entityManager, never()).refresh(created.get(1));
+            assertEquals(5 * TaskRank.GAP / 2, created.get(1).getRank());
+        }
+
+        @Test
+        @DisplayName("Falha: Deve apontar o item inválido e não persistir nada.")
+        void shouldFailWithItemIndexWhenAnyTaskIsInvalid() {
+            multipleChoiceDTO.setOrder(2);
+            multipleChoiceDTO.setOptions(List.of(new Option("Spring", true), new Option("MySQL", false)));
+
+            ValidationException exception = assertThrows(ValidationException.class, () ->
+                    taskService.createTasks(courseId, List.of(
+                            bulkItem(Type.OPEN_TEXT, openTextDTO),
+                            bulkItem(Type.MULTIPLE_CHOICE, multipleChoiceDTO)
+                    ))
+            );
+
+            assertTrue(exception.getMessage().startsWith("tasks[1].options|"));
+            verify(taskRepository, never()).saveAll(anyList());
+        }
+
+        @Test
+        @DisplayName("Falha: Deve rejeitar enunciados repetidos dentro do próprio lote.")
+        void shouldFailIfStatementIsRepeatedInsideTheBatch() {
+            singleChoiceDTO.setStatement(openTextDTO.getStatement());
+            singleChoiceDTO.setOrder(2);
+
+            ValidationException exception = assertThrows(ValidationException.class, () ->
+                    taskService.createTasks(courseId, List.of(
+                            bulkItem(Type.OPEN_TEXT, openTextDTO),
+                            bulkItem(Type.SINGLE_CHOICE, singleChoiceDTO)
+                    ))
+            );
+
+            assertTrue(exception.getMessage().startsWith("tasks[1].statement|"));
+            verify(taskRepository, never()).saveAll(anyList());
+        }
+
+        @Test
+        @DisplayName("Falha: Deve reportar os erros de todos os itens do lote de uma vez.")
+        void shouldReportErrorsOfEveryItemAtOnce() {
+            singleChoiceDTO.setOrder(2);
+            singleChoiceDTO.setOptions(List.of(new Option("Java", false), new Option("java", false)));
+            multipleChoiceDTO.setOrder(3);
+            multipleChoiceDTO.setOptions(List.of(new Option("Spring", true), new Option("Node", false)));
+
+            ValidationErrorsException exception = assertThrows(ValidationErrorsException.class, () ->
+                    taskService.createTasks(courseId, List.of(
+                            bulkItem(Type.OPEN_TEXT, openTextDTO),
+                            bulkItem(Type.SINGLE_CHOICE, singleChoiceDTO),
+                            bulkItem(Type.MULTIPLE_CHOICE, multipleChoiceDTO)
+                    ))
+            );
+
+            assertEquals(List.of("tasks[1].options", "tasks[1].options", "tasks[2].options", "tasks[2].options"),
+                    exception.getErrors().stream().map(ErrorItemDTO::getField).toList());
+            verify(taskRepository, never()).saveAll(anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("Ordenação Esparsa")
+    class SparseRankTests {
+
+        @Test
+        @DisplayName("Sucesso: Deve inserir no início usando apenas os ranks vizinhos.")
+        void shouldInsertAtFirstPositionUsingNeighbourRanks() {
+            validCourse.registerTask(Type.OPEN_TEXT);
+            validCourse.registerTask(Type.OPEN_TEXT);
+            when(taskRepository.findRankWindow(courseId, 0)).thenReturn(List.of(TaskRank.GAP, 2 * TaskRank.GAP));
+
+            taskService.createOpenTextTask(openTextDTO);
+
+            ArgumentCaptor<Task> saved = ArgumentCaptor.forClass(Task.class);
+            verify(taskRepository).save(saved.capture());
+            assertEquals(TaskRank.GAP / 2, saved.getValue().getRank());
+            verify(taskRepository, never()).saveAll(anyList());
+            assertEquals(0, meterRegistry.get("alurafake.task.rows.shifted").summary().totalAmount());
+            assertEquals(1, meterRegistry.get("alurafake.task.create").tag("type", "OPEN_TEXT").timer().count());
+        }
+
+        @Test
+        @DisplayName("Sucesso: Deve anexar ao final com um intervalo completo.")
+        void shouldAppendAfterLastRank() {
+            openTextDTO.setOrder(3);
+            validCourse.registerTask(Type.OPEN_TEXT);
+            validCourse.registerTask(Type.OPEN_TEXT);
+            when(taskRepository.findRankWindow(courseId, 1)).thenReturn(List.of(2 * TaskRank.GAP));
+
+            taskService.createOpenTextTask(openTextDTO);
+
+            ArgumentCaptor<Task> saved = ArgumentCaptor.forClass(Task.class);
+            verify(taskRepository).save(saved.capture());
+            assertEquals(3 * TaskRank.GAP, saved.getValue().getRank());
+        }
+
+        @Test
+        @DisplayName("Rebalanceamento: Deve redistribuir os ranks quando não houver espaço entre vizinhos.")
+        void shouldRebalanceWhenNeighboursAreAdjacent() {
+            openTextDTO.setOrder(2);
+            validCourse.registerTask(Type.OPEN_TEXT);
+            validCourse.registerTask(Type.OPEN_TEXT);
+            when(taskRepository.findRankWindow(courseId, 0))
+                    .thenReturn(List.of(7L, 8L))
+                    .thenReturn(List.of(TaskRank.GAP, 2 * TaskRank.GAP));
+            when(taskRepository.detachRanks(courseId)).thenReturn(2);
+
+            taskService.createOpenTextTask(openTextDTO);
+
+            verify(taskRepository).detachRanks(courseId);
+            verify(taskRepository).spreadRanks(courseId, TaskRank.GAP);
+            ArgumentCaptor<Task> saved = ArgumentCaptor.forClass(Task.class);
+            verify(taskRepository).save(saved.capture());
+            assertEquals(3 * TaskRank.GAP / 2, saved.getValue().getRank());
+            assertEquals(2, meterRegistry.get("alurafake.task.rows.shifted").summary().totalAmount());
+            assertEquals(1, meterRegistry.get("alurafake.task.rank.rebalance").timer().count());
+        }
+
+        @Test
+        @DisplayName("Falha: Deve rejeitar ordem menor que 1.")
+        void shouldFailIfOrderIsNotPositive() {
+            openTextDTO.setOrder(0);
+
+            ValidationException exception = assertThrows(ValidationException.class, () ->
+                    taskService.createOpenTextTask(openTextDTO));
+
+            assertTrue(exception.getMessage().startsWith("order|"));
+            verify(taskRepository, never()).save(any(Task.class));
+        }
+    }
 }
@@ -7,10 +7,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
-import java.util.Arrays;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -23,6 +26,9 @@ class UserControllerTest {
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private UserService userService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -88,17 +94,86 @@ class UserControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    void newStudents__should_return_bad_request_when_list_is_empty() throws Exception {
+        mockMvc.perform(post("/user/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.field").value("users"));
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void newStudents__should_return_created_with_row_errors() throws Exception {
+        when(userService.createUsers(anyList())).thenReturn(new BulkUserResultDTO(1,
+                List.of(new BulkUserErrorDTO(1, "email", "Email já cadastrado no sistema"))));
+
+        mockMvc.perform(post("/user/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"name": "Caio", "email": "caio@alura.com.br", "role": "STUDENT"},
+                                 {"name": "Paulo", "email": "paulo@alura.com.br", "role": "STUDENT"}]
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].message").value("Email já cadastrado no sistema"));
+    }
+
+    @Test
+    void newStudents__should_return_bad_request_when_nothing_was_created() throws Exception {
+        when(userService.createUsers(anyList())).thenReturn(new BulkUserResultDTO(0,
+                List.of(new BulkUserErrorDTO(0, "email", "Email já cadastrado no sistema"))));
+
+        mockMvc.perform(post("/user/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"Caio\", \"email\": \"caio@alura.com.br\", \"role\": \"STUDENT\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.created").value(0));
+    }
+
     @Test
     void listAllUsers__should_list_all_users() throws Exception {
-        User user1 = new User("User 1", "user1@test.com",Role.STUDENT);
-        User user2 = new User("User 2", "user2@test.com",Role.STUDENT);
-        when(userRepository.findAll()).thenReturn(Arrays.asList(user1, user2));
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("[{\"name\":\"User 1\"},{\"name\":\"User 2\"}]".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userService).writeUsersAsJsonArray(isNull(), any(OutputStream.class));
 
-        mockMvc.perform(get("/user/all")
+        MvcResult result = mockMvc.perform(get("/user/all")
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$[0].name").value("User 1"))
                 .andExpect(jsonPath("$[1].name").value("User 2"));
     }
 
+    @Test
+    void listAllUsers__should_stream_ndjson_filtered_by_role_when_requested() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"name\":\"Paulo\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userService).writeUsersAsNdjson(eq(Role.INSTRUCTOR), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/user/all")
+                        .param("role", "INSTRUCTOR")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"name\":\"Paulo\"}\n"));
+
+        verify(userService, never()).writeUsersAsJsonArray(any(), any());
+    }
+
 }
\ No newline at end of file
@@ -5,7 +5,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
@@ -38,4 +40,14 @@ class UserRepositoryTest {
         assertThat(userRepository.existsByEmail("sergio@alura.com.br")).isFalse();
     }
 
+    @Test
+    void streamAllByRole__should_project_only_users_with_the_given_role() {
+        userRepository.save(new User("Caio", "caio@alura.com.br", Role.STUDENT));
+        userRepository.save(new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+
+        try (Stream<UserListItemDTO> instructors = userRepository.streamAllByRole(Role.INSTRUCTOR)) {
+            assertThat(instructors.map(UserListItemDTO::getEmail).toList()).isEqualTo(List.of("paulo@alura.com.br"));
+        }
+    }
+
 }
\ No newline at end of file
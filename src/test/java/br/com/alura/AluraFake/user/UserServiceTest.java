@@ -0,0 +1,145 @@
+package br.com.alura.AluraFake.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @InjectMocks
+    private UserService userService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Test
+    void writeUsersAsJsonArray__should_write_every_user_and_close_the_stream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.streamAll()).thenReturn(Stream.of(
+                new UserListItemDTO("User 1", "user1@test.com", Role.STUDENT),
+                new UserListItemDTO("User 2", "user2@test.com", Role.INSTRUCTOR)
+        ).onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userService.writeUsersAsJsonArray(null, out);
+
+        assertEquals("[{\"name\":\"User 1\",\"email\":\"user1@test.com\",\"role\":\"STUDENT\"}," +
+                "{\"name\":\"User 2\",\"email\":\"user2@test.com\",\"role\":\"INSTRUCTOR\"}]",
+                out.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void writeUsersAsJsonArray__should_write_empty_array_when_there_are_no_users() throws Exception {
+        when(userRepository.streamAll()).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userService.writeUsersAsJsonArray(null, out);
+
+        assertEquals("[]", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeUsersAsNdjson__should_write_one_user_per_line_filtered_by_role() throws Exception {
+        when(userRepository.streamAllByRole(Role.INSTRUCTOR)).thenReturn(Stream.of(
+                new UserListItemDTO("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR),
+                new UserListItemDTO("Caio", "caio@alura.com.br", Role.INSTRUCTOR)
+        ));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userService.writeUsersAsNdjson(Role.INSTRUCTOR, out);
+
+        assertEquals("{\"name\":\"Paulo\",\"email\":\"paulo@alura.com.br\",\"role\":\"INSTRUCTOR\"}\n" +
+                "{\"name\":\"Caio\",\"email\":\"caio@alura.com.br\",\"role\":\"INSTRUCTOR\"}\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(userRepository, never()).streamAll();
+    }
+
+    @Test
+    void createUsers__should_report_invalid_repeated_and_existing_emails_by_position() {
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        when(userRepository.findEmailsIn(anyCollection())).thenReturn(List.of("Paulo@Alura.com.br"));
+
+        BulkUserResultDTO result = userService.createUsers(Arrays.asList(
+                newUser("Caio", "caio@alura.com.br"),
+                newUser("Paulo", "paulo@alura.com.br"),
+                newUser("Caio Repetido", "CAIO@alura.com.br"),
+                newUser("Ana", "ana"),
+                null
+        ));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(List.of(1, 2, 3, 4), result.getErrors().stream().map(BulkUserErrorDTO::getIndex).toList());
+        assertEquals("Email já cadastrado no sistema", result.getErrors().get(0).getMessage());
+        assertEquals("Email repetido na requisição", result.getErrors().get(1).getMessage());
+        assertEquals("email", result.getErrors().get(2).getField());
+        verify(userRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void createUsers__should_look_up_emails_in_chunks_and_insert_in_batches() {
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        List<Integer> lookupSizes = new ArrayList<>();
+        when(userRepository.findEmailsIn(anyCollection())).thenAnswer(invocation -> {
+            lookupSizes.add(invocation.<Collection<String>>getArgument(0).size());
+            return List.of();
+        });
+        List<Integer> insertSizes = new ArrayList<>();
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            insertSizes.add(invocation.<List<User>>getArgument(0).size());
+            return List.of();
+        });
+
+        int total = UserService.EMAIL_LOOKUP_CHUNK_SIZE + 1;
+        List<NewUserDTO> newUsers = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            newUsers.add(newUser("Aluno " + i, "aluno" + i + "@alura.com.br"));
+        }
+
+        BulkUserResultDTO result = userService.createUsers(newUsers);
+
+        assertEquals(total, result.getCreated());
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(List.of(UserService.EMAIL_LOOKUP_CHUNK_SIZE, 1), lookupSizes);
+        assertEquals(List.of(UserService.INSERT_BATCH_SIZE, UserService.INSERT_BATCH_SIZE, 1), insertSizes);
+        verify(entityManager, times(3)).clear();
+    }
+
+    private static NewUserDTO newUser(String name, String email) {
+        NewUserDTO newUser = new NewUserDTO();
+        newUser.setName(name);
+        newUser.setEmail(email);
+        newUser.setRole(Role.STUDENT);
+        return newUser;
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.alura.AluraFake.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PessimisticLockRetryTest {
+
+    private final PessimisticLockRetry lockRetry = new PessimisticLockRetry(3, 0);
+
+    @Test
+    void execute__should_retry_until_lock_is_acquired() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = lockRetry.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new CannotAcquireLockException("lock wait timeout");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void execute__should_give_up_after_max_attempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(CannotAcquireLockException.class, () -> lockRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new CannotAcquireLockException("lock wait timeout");
+        }));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void execute__should_not_retry_other_failures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> lockRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("falha");
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+}
@@ -0,0 +1,78 @@
+package db.migration;
+
+import br.com.alura.AluraFake.task.StatementHash;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RehashTaskStatementsMigrationTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE Task (id bigint PRIMARY KEY, statement varchar(255), statement_hash char(64))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void rehash__should_match_the_application_hash_for_statements_with_tabs_and_newlines() throws Exception {
+        // Hash que o backfill SQL gerava: o TRIM do MySQL mantém a tabulação e a quebra de linha
+        String statement = "\tO que é Java?\n";
+        String sqlBackfillHash = sha256Hex("\to que é java?\n");
+        jdbc.update("INSERT INTO Task (id, statement, statement_hash) VALUES (1, ?, ?)", statement, sqlBackfillHash);
+        jdbc.update("INSERT INTO Task (id, statement, statement_hash) VALUES (2, ?, ?)",
+                "Outra atividade", StatementHash.of("Outra atividade"));
+
+        int updated;
+        try (Connection connection = database.getConnection()) {
+            updated = V12__RehashTaskStatements.rehash(connection);
+        }
+
+        assertEquals(1, updated);
+        assertEquals(StatementHash.of("o que é java?"),
+                jdbc.queryForObject("SELECT statement_hash FROM Task WHERE id = 1", String.class));
+    }
+
+    @Test
+    void rehash__should_walk_every_page() throws Exception {
+        int total = V12__RehashTaskStatements.PAGE_SIZE * 2 + 1;
+        for (int id = 1; id <= total; id++) {
+            jdbc.update("INSERT INTO Task (id, statement, statement_hash) VALUES (?, ?, ?)", id, " Atividade " + id + "\t", "");
+        }
+
+        int updated;
+        try (Connection connection = database.getConnection()) {
+            updated = V12__RehashTaskStatements.rehash(connection);
+        }
+
+        assertEquals(total, updated);
+        assertEquals(StatementHash.of("Atividade " + total),
+                jdbc.queryForObject("SELECT statement_hash FROM Task WHERE id = ?", String.class, total));
+    }
+
+    private static String sha256Hex(String value) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}